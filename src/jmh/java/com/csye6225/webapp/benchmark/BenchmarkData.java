@@ -0,0 +1,64 @@
+package com.csye6225.webapp.benchmark;
+
+import com.csye6225.webapp.dto.SyllabusResponse;
+import com.csye6225.webapp.entity.Course;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixtures shaped like production rows: full-length descriptions, prerequisites and timestamps.
+ */
+final class BenchmarkData {
+
+    private static final String[] DEPARTMENTS = {"CSYE", "INFO", "DAMG", "ENCP", "TELE"};
+    private static final String[] CLASSIFICATIONS = {"core", "elective", "project"};
+    private static final String DESCRIPTION = "This course covers the design, deployment and operation of "
+            + "cloud-native applications: infrastructure as code, immutable images, load balancing, "
+            + "auto scaling, observability, serverless functions and continuous delivery pipelines. "
+            + "Students build and operate a production-style web service across the semester, with "
+            + "weekly assignments that introduce a new managed service and a final team project.";
+
+    private BenchmarkData() {
+    }
+
+    static Course course(int index) {
+        Course course = new Course();
+        course.setId(UUID.nameUUIDFromBytes(("course-" + index).getBytes()));
+        course.setDepartmentCode(DEPARTMENTS[index % DEPARTMENTS.length]);
+        course.setNumber(String.valueOf(5000 + index));
+        course.setTitle("Network Structures and Cloud Computing " + index);
+        course.setCreditHours(4);
+        course.setClassification(CLASSIFICATIONS[index % CLASSIFICATIONS.length]);
+        course.setDescription(DESCRIPTION);
+        course.setPrerequisites("CSYE 6200, INFO 6150");
+        course.setHasSyllabus(index % 2 == 0);
+        course.setDateCreated(LocalDateTime.of(2025, 9, 1, 9, 30).plusMinutes(index));
+        course.setDateUpdated(LocalDateTime.of(2025, 10, 15, 14, 0).plusMinutes(index));
+        return course;
+    }
+
+    /**
+     * Courses without ids, for inserting through JPA
+     */
+    static List<Course> newCourses(int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Course course = course(i);
+            course.setId(null);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    static SyllabusResponse syllabus() {
+        UUID courseId = course(1).getId();
+        String key = courseId + "/" + UUID.nameUUIDFromBytes("syllabus".getBytes()) + "/CSYE6225-Fall2025-Syllabus.pdf";
+        return new SyllabusResponse(UUID.nameUUIDFromBytes("syllabus-row".getBytes()), courseId.toString(),
+                "CSYE6225-Fall2025-Syllabus.pdf", "csye6225-webapp-syllabi", key, "application/pdf",
+                2_457_600L, "https://csye6225-webapp-syllabi.s3.amazonaws.com/" + key,
+                LocalDateTime.of(2025, 9, 2, 10, 0), LocalDateTime.of(2025, 9, 2, 10, 0));
+    }
+}
@@ -0,0 +1,41 @@
+package com.csye6225.webapp.benchmark;
+
+import com.csye6225.webapp.dto.CourseResponse;
+import com.csye6225.webapp.entity.Course;
+import com.csye6225.webapp.service.CourseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CourseService.mapToResponse — entity to DTO copy on every course read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CourseMappingBenchmark {
+
+    private CourseService courseService;
+    private Course course;
+    private List<Course> catalog;
+
+    @Setup
+    public void setUp() {
+        courseService = new CourseService();
+        course = BenchmarkData.course(1);
+        catalog = BenchmarkData.newCourses(100);
+    }
+
+    @Benchmark
+    public CourseResponse mapOne() {
+        return courseService.mapToResponse(course);
+    }
+
+    @Benchmark
+    public List<CourseResponse> mapPageOf100() {
+        return catalog.stream().map(courseService::mapToResponse).toList();
+    }
+}
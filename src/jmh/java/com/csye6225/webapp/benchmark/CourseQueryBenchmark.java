@@ -0,0 +1,82 @@
+package com.csye6225.webapp.benchmark;
+
+import com.csye6225.webapp.WebappApplication;
+import com.csye6225.webapp.dto.CourseResponse;
+import com.csye6225.webapp.repository.CourseRepository;
+import com.csye6225.webapp.service.CourseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing the catalog from an in-memory H2 database: managed entities mapped to DTOs
+ * versus the constructor projection CourseService loads on a cache miss, versus a
+ * CourseCatalogCache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CourseQueryBenchmark {
+
+    private static final Sort CATALOG_ORDER = Sort.by("departmentCode", "number");
+
+    @Param({"1000"})
+    private int courses;
+
+    private ConfigurableApplicationContext context;
+    private CourseRepository courseRepository;
+    private CourseService courseService;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(WebappApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=ERROR",
+                "--logging.level.org.hibernate.SQL=ERROR",
+                "--aws.s3.bucket-name=");
+        courseRepository = context.getBean(CourseRepository.class);
+        courseService = context.getBean(CourseService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        courseRepository.saveAll(BenchmarkData.newCourses(courses));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CourseResponse> entitiesThenMap() {
+        return readOnlyTransaction.execute(status -> courseRepository.findAll(CATALOG_ORDER)
+                .stream()
+                .map(courseService::mapToResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<CourseResponse> constructorProjection() {
+        return readOnlyTransaction.execute(status -> courseRepository.findAllResponses());
+    }
+
+    @Benchmark
+    public List<CourseResponse> cachedCatalog() {
+        return courseService.getAllCourses();
+    }
+}
@@ -0,0 +1,85 @@
+package com.csye6225.webapp.benchmark;
+
+import com.csye6225.webapp.WebappApplication;
+import com.csye6225.webapp.repository.CourseRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting a batch of courses in one transaction with Hibernate JDBC batching off (batch_size=0,
+ * the base configuration) versus the prod profile's batch_size=50 with ordered inserts.
+ * Each invocation is rolled back after the flush, so every run inserts into the same table state.
+ * In-memory H2 has no network round trips to save; point BENCHMARK_DATASOURCE_URL (plus _USERNAME /
+ * _PASSWORD) at a scratch MySQL schema to measure the effect together with rewriteBatchedStatements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JdbcBatchingBenchmark {
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    @Param({"500"})
+    private int courses;
+
+    private ConfigurableApplicationContext context;
+    private CourseRepository courseRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = env("BENCHMARK_DATASOURCE_URL",
+                "jdbc:h2:mem:batching;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        boolean mysql = url.startsWith("jdbc:mysql:");
+        // Command-line arguments, so they take precedence over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name=" + (mysql ? "com.mysql.cj.jdbc.Driver" : "org.h2.Driver"),
+                "--spring.datasource.username=" + env("BENCHMARK_DATASOURCE_USERNAME", "sa"),
+                "--spring.datasource.password=" + env("BENCHMARK_DATASOURCE_PASSWORD", ""),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect." + (mysql ? "MySQLDialect" : "H2Dialect"),
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--spring.jpa.properties.hibernate.order_inserts=" + (batchSize > 0),
+                "--logging.level.root=ERROR",
+                "--aws.s3.bucket-name="));
+        if (mysql) {
+            // Driver-side half of batching; H2 rejects unknown connection settings
+            args.add("--spring.datasource.hikari.data-source-properties.rewriteBatchedStatements=" + (batchSize > 0));
+        }
+        context = new SpringApplicationBuilder(WebappApplication.class).run(args.toArray(String[]::new));
+        courseRepository = context.getBean(CourseRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    // Environment rather than system properties: JMH forks inherit it
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insertCourses() {
+        return transactionTemplate.execute(status -> {
+            int inserted = courseRepository.saveAll(BenchmarkData.newCourses(courses)).size();
+            courseRepository.flush();
+            status.setRollbackOnly();
+            return inserted;
+        });
+    }
+}
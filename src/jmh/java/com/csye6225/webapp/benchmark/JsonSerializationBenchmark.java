@@ -0,0 +1,76 @@
+package com.csye6225.webapp.benchmark;
+
+import com.csye6225.webapp.dto.CourseResponse;
+import com.csye6225.webapp.dto.SyllabusResponse;
+import com.csye6225.webapp.service.CourseService;
+import com.csye6225.webapp.service.JsonResponseCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of response DTOs, using an ObjectMapper configured the way Spring Boot builds it,
+ * against the JsonResponseCache hit path that returns the bytes kept for an unchanged version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter courseListWriter;
+    private CourseResponse course;
+    private List<CourseResponse> coursePage;
+    private SyllabusResponse syllabus;
+    private JsonResponseCache jsonResponseCache;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        courseListWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, CourseResponse.class));
+        CourseService courseService = new CourseService();
+        course = courseService.mapToResponse(BenchmarkData.course(1));
+        coursePage = BenchmarkData.newCourses(100).stream().map(courseService::mapToResponse).toList();
+        syllabus = BenchmarkData.syllabus();
+        jsonResponseCache = new JsonResponseCache(objectMapper, true, DataSize.ofMegabytes(32));
+    }
+
+    @Benchmark
+    public byte[] courseResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(course);
+    }
+
+    @Benchmark
+    public byte[] coursePageOf100() throws JsonProcessingException {
+        return courseListWriter.writeValueAsBytes(coursePage);
+    }
+
+    @Benchmark
+    public byte[] syllabusResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(syllabus);
+    }
+
+    @Benchmark
+    public byte[] cachedCourseResponse() {
+        return jsonResponseCache.get("course", course.getId(), course.getDateUpdated(), () -> course);
+    }
+
+    @Benchmark
+    public byte[] cachedCoursePageOf100() {
+        return jsonResponseCache.get("courses", "page", 100, () -> coursePage);
+    }
+
+    @Benchmark
+    public byte[] cachedSyllabusResponse() {
+        return jsonResponseCache.get("syllabus", syllabus.getCourseId(), syllabus.getDateUpdated(), () -> syllabus);
+    }
+}
@@ -0,0 +1,52 @@
+package com.csye6225.webapp.benchmark;
+
+import com.csye6225.webapp.config.PasswordEncoderConfig;
+import com.csye6225.webapp.service.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordHasher per algorithm of the delegating engine — one hash per call, the dominant cost
+ * of Basic auth (verify) and of signup / password change (encode, including the hand-off to the
+ * hashing executor). Parameters are the production defaults: BCrypt cost 10, Argon2 16 MiB x 2
+ * iterations, PBKDF2-SHA256 310k iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PasswordVerificationBenchmark {
+
+    private static final String PASSWORD = "secureP@ssw0rd";
+
+    @Param({PasswordEncoderConfig.BCRYPT, PasswordEncoderConfig.ARGON2, PasswordEncoderConfig.PBKDF2})
+    private String algorithm;
+
+    private PasswordHasher passwordHasher;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        passwordHasher = new PasswordHasher(PasswordEncoderConfig.delegatingEncoder(algorithm,
+                PasswordEncoderConfig.encoders(10, 16384, 2, 310000), new SimpleMeterRegistry()), 1, 64);
+        storedHash = passwordHasher.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean correctPassword() {
+        return passwordHasher.matches(PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    public boolean wrongPassword() {
+        return passwordHasher.matches("wrongP@ssw0rd", storedHash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordHasher.encode(PASSWORD);
+    }
+}
@@ -0,0 +1,37 @@
+package com.csye6225.webapp.benchmark;
+
+import com.csye6225.webapp.controller.CourseController;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PUT /v1/courses/{id} body checks: parse to a tree, then the updatable-field whitelist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UpdateFieldWhitelistBenchmark {
+
+    private static final String VALID_BODY = "{\"title\":\"Network Structures and Cloud Computing\","
+            + "\"credit_hours\":4,\"classification\":\"core\",\"description\":\"Updated description\","
+            + "\"prerequisites\":\"CSYE 6200\"}";
+    private static final String INVALID_BODY = "{\"title\":\"Network Structures and Cloud Computing\","
+            + "\"credit_hours\":4,\"department_code\":\"INFO\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public String validUpdate() throws JsonProcessingException {
+        return CourseController.findDisallowedUpdateField(objectMapper.readTree(VALID_BODY));
+    }
+
+    @Benchmark
+    public String immutableFieldRejected() throws JsonProcessingException {
+        return CourseController.findDisallowedUpdateField(objectMapper.readTree(INVALID_BODY));
+    }
+}
@@ -0,0 +1,359 @@
+package com.csye6225.webapp.loadtest;
+
+import com.csye6225.webapp.LocalS3Stub;
+import com.csye6225.webapp.WebappApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load generator: boots the application on H2 with a local S3 stand-in and drives
+ * a weighted mix of requests from a fixed number of workers, recording per-endpoint latency
+ * in HdrHistograms. Configured with system properties (see the loadtest Maven profile):
+ * <ul>
+ *   <li>loadtest.concurrency — concurrent workers (default 32)</li>
+ *   <li>loadtest.warmup / loadtest.duration — ISO-8601 durations (PT10S / PT30S)</li>
+ *   <li>loadtest.mix — weights, e.g. "healthz=20,user=20,courses=15,course=25,syllabus=15,signup=5"</li>
+ *   <li>loadtest.courses — catalog size seeded before the run (100)</li>
+ *   <li>loadtest.syllabus-bytes — uploaded syllabus size (262144)</li>
+ *   <li>loadtest.result — JSON summary path (target/loadtest-result.json)</li>
+ *   <li>loadtest.virtual-threads — serve requests on virtual threads (false; needs Java 21+)</li>
+ * </ul>
+ */
+public class LoadTestRunner {
+
+    private static final String PASSWORD = "loadP@ssw0rd";
+    private static final String BOUNDARY = "loadtest-boundary";
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final AtomicLong signups = new AtomicLong();
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    private final int courseCount = Integer.getInteger("loadtest.courses", 100);
+    private final byte[] syllabus = new byte[Integer.getInteger("loadtest.syllabus-bytes", 262144)];
+    private final Path resultPath = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+    private final Operation[] mix = parseMix(System.getProperty("loadtest.mix",
+            "healthz=20,user=20,courses=15,course=25,syllabus=15,signup=5"));
+    private final boolean virtualThreads = Boolean.getBoolean("loadtest.virtual-threads");
+
+    private String baseUrl;
+    private String authorization;
+    private final List<String> courseIds = new ArrayList<>();
+    // Per-worker syllabus state, kept across the warmup and measured phases
+    private boolean[] hasSyllabus;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestRunner().run();
+        // Spring and the stub leave non-daemon threads behind
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        System.setProperty("aws.accessKeyId", "loadtest");
+        System.setProperty("aws.secretAccessKey", "loadtest");
+        // devtools is on the test classpath; its restarter would relaunch the app in another thread
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ThreadLocalRandom.current().nextBytes(syllabus);
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            System.out.printf("loadtest.virtual-threads ignored: running on Java %d%n", Runtime.version().feature());
+        }
+
+        try (LocalS3Stub s3 = new LocalS3Stub();
+             ConfigurableApplicationContext context = startApplication(s3)) {
+            baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            seed();
+            hasSyllabus = new boolean[concurrency];
+
+            System.out.printf("Warming up for %s with %d workers%n", warmup, concurrency);
+            drive(warmup);
+            recorders.values().forEach(Recorder::reset);
+            errors.clear();
+
+            System.out.printf("Measuring for %s with %d workers (%s threads)%n", duration, concurrency,
+                    virtualThreadsActive() ? "virtual" : "platform");
+            long start = System.nanoTime();
+            drive(duration);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            report(seconds);
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(LocalS3Stub s3) {
+        // Command-line arguments, so they take precedence over application.properties
+        return new SpringApplicationBuilder(WebappApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--aws.s3.bucket-name=loadtest-bucket",
+                "--aws.s3.endpoint=" + s3.endpoint(),
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+    }
+
+    /**
+     * One user for authenticated traffic, the shared catalog, and one course per worker for syllabus churn
+     */
+    private void seed() throws Exception {
+        String username = "loadtest@example.com";
+        send(HttpRequest.newBuilder(uri("/v1/user"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(userJson(username))), 201);
+        authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < courseCount + concurrency; i++) {
+            ObjectNode course = objectMapper.createObjectNode()
+                    .put("department_code", i < courseCount ? "CSYE" : "LOAD")
+                    .put("number", String.valueOf(1000 + i))
+                    .put("title", "Load Test Course " + i)
+                    .put("credit_hours", 4)
+                    .put("classification", i % 2 == 0 ? "core" : "elective")
+                    .put("description", "Seeded by the load-test harness");
+            String body = send(authorized("/v1/courses")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(course.toString())), 201);
+            courseIds.add(objectMapper.readTree(body).get("id").asText());
+        }
+    }
+
+    private void drive(Duration period) throws InterruptedException {
+        long deadline = System.nanoTime() + period.toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            Worker task = new Worker(worker, deadline, done);
+            Thread thread = new Thread(task, "loadtest-" + worker);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+    }
+
+    private final class Worker implements Runnable {
+
+        private final int index;
+        private final String syllabusCourseId;
+        private final long deadline;
+        private final CountDownLatch done;
+
+        Worker(int index, long deadline, CountDownLatch done) {
+            this.index = index;
+            this.syllabusCourseId = courseIds.get(courseCount + index);
+            this.deadline = deadline;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+                    switch (operation) {
+                        case HEALTHZ -> timed("GET /healthz", HttpRequest.newBuilder(uri("/healthz")).GET(), 200);
+                        case USER -> timed("GET /v1/user/self", authorized("/v1/user/self").GET(), 200);
+                        case COURSES -> timed("GET /v1/courses?limit=50",
+                                authorized("/v1/courses?limit=50").GET(), 200);
+                        case COURSE -> timed("GET /v1/courses/{id}", authorized("/v1/courses/"
+                                + courseIds.get(ThreadLocalRandom.current().nextInt(courseCount))).GET(), 200);
+                        case SYLLABUS -> syllabusStep();
+                        case SIGNUP -> timed("POST /v1/user", HttpRequest.newBuilder(uri("/v1/user"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(userJson(
+                                        "signup" + signups.incrementAndGet() + "@example.com"))), 201);
+                    }
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+
+        // Cycles this worker's course through upload -> read -> delete
+        private void syllabusStep() {
+            String path = "/v1/courses/" + syllabusCourseId + "/syllabus";
+            if (!hasSyllabus[index]) {
+                hasSyllabus[index] = timed("POST /v1/courses/{id}/syllabus", authorized(path)
+                        .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody())), 201);
+            } else if (ThreadLocalRandom.current().nextBoolean()) {
+                timed("GET /v1/courses/{id}/syllabus", authorized(path).GET(), 200);
+            } else {
+                hasSyllabus[index] = !timed("DELETE /v1/courses/{id}/syllabus", authorized(path).DELETE(), 204);
+            }
+        }
+    }
+
+    /**
+     * Send a request and record its latency; non-matching statuses and I/O failures count as errors
+     */
+    private boolean timed(String endpoint, HttpRequest.Builder request, int expectedStatus) {
+        Recorder recorder = recorders.computeIfAbsent(endpoint, key -> new Recorder(MAX_LATENCY_NANOS, 3));
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() == expectedStatus;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        recorder.recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY_NANOS));
+        if (!ok) {
+            errors.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+        }
+        return ok;
+    }
+
+    private void report(double seconds) throws IOException {
+        ObjectNode result = objectMapper.createObjectNode()
+                .put("concurrency", concurrency)
+                .put("virtual_threads", virtualThreadsActive())
+                .put("duration_seconds", seconds);
+        ObjectNode endpoints = result.putObject("endpoints");
+        Histogram total = new Histogram(MAX_LATENCY_NANOS, 3);
+
+        System.out.printf("%n%-34s %9s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        recorders.keySet().stream().sorted().forEach(name -> histograms.put(name, recorders.get(name).getIntervalHistogram()));
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            total.add(histogram);
+            long errorCount = errors.getOrDefault(entry.getKey(), new AtomicLong()).get();
+            printRow(entry.getKey(), histogram, errorCount, seconds);
+            endpoints.set(entry.getKey(), summary(histogram, errorCount, seconds));
+        }
+        long totalErrors = errors.values().stream().mapToLong(AtomicLong::get).sum();
+        printRow("TOTAL", total, totalErrors, seconds);
+        result.set("total", summary(total, totalErrors, seconds));
+
+        Files.createDirectories(resultPath.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultPath.toFile(), result);
+        System.out.printf("%nResults written to %s%n", resultPath.toAbsolutePath());
+    }
+
+    // Spring Boot only switches Tomcat and the task executors over on Java 21+
+    private boolean virtualThreadsActive() {
+        return virtualThreads && Runtime.version().feature() >= 21;
+    }
+
+    private static void printRow(String name, Histogram histogram, long errorCount, double seconds) {
+        System.out.printf("%-34s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds, errorCount, millis(histogram, 50), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+    }
+
+    private JsonNode summary(Histogram histogram, long errorCount, double seconds) {
+        return objectMapper.createObjectNode()
+                .put("requests", histogram.getTotalCount())
+                .put("throughput_per_second", histogram.getTotalCount() / seconds)
+                .put("errors", errorCount)
+                .put("p50_ms", millis(histogram, 50))
+                .put("p99_ms", millis(histogram, 99))
+                .put("p999_ms", millis(histogram, 99.9))
+                .put("max_ms", histogram.getMaxValue() / 1e6);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private String send(HttpRequest.Builder request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", authorization);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private String userJson(String username) {
+        return objectMapper.createObjectNode()
+                .put("username", username)
+                .put("password", PASSWORD)
+                .put("first_name", "Load")
+                .put("last_name", "Test")
+                .toString();
+    }
+
+    private byte[] multipartBody() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(syllabus.length + 256);
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"syllabus.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(syllabus);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    /**
+     * Expand "name=weight,..." into a table sampled uniformly, so weights are relative frequencies
+     */
+    private static Operation[] parseMix(String spec) {
+        List<Operation> table = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no positive weights");
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    private enum Operation {
+        HEALTHZ, USER, COURSES, COURSE, SYLLABUS, SIGNUP
+    }
+}
@@ -0,0 +1,68 @@
+package com.csye6225.webapp.config;
+
+import com.csye6225.webapp.service.AuthTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates "Authorization: Bearer" requests on the course and user-self endpoints from a token
+ * issued by POST /v1/token. The signature is checked in memory, so these requests skip the user
+ * lookup and password hash that Basic auth costs. Not a bean: SecurityConfig adds it to the chain
+ * only when auth.token.enabled=true.
+ */
+class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final RequestMatcher TOKEN_PATHS = new OrRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher("/v1/courses/**"),
+            PathPatternRequestMatcher.withDefaults().matcher("/v1/user/self"));
+
+    private final AuthTokenService authTokenService;
+    private final AuthenticationEntryPoint authEntryPoint;
+
+    BearerTokenAuthenticationFilter(AuthTokenService authTokenService, AuthenticationEntryPoint authEntryPoint) {
+        this.authTokenService = authTokenService;
+        this.authEntryPoint = authEntryPoint;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        // Elsewhere (including /v1/token itself) a bearer header authenticates nothing
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())
+                || !TOKEN_PATHS.matches(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<String> username = authTokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (username.isEmpty()) {
+            SecurityContextHolder.clearContext();
+            authEntryPoint.commence(request, response, new BadCredentialsException("Invalid bearer token"));
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username.get(), null, List.of()));
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,49 @@
+package com.csye6225.webapp.config;
+
+import com.csye6225.webapp.service.CredentialCache;
+import com.csye6225.webapp.service.UserService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * DaoAuthenticationProvider that skips the password hash comparison when the same
+ * credential was verified recently against the same stored hash.
+ * Enabled/locked checks still run on every request before this method is reached.
+ * Full verifications are timed per algorithm by the password encoder (TimedPasswordEncoder);
+ * a hash the encoder would upgrade is re-hashed in the background after it verifies.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final CredentialCache credentialCache;
+    private final UserService userService;
+
+    public CachingDaoAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                            CredentialCache credentialCache, UserService userService) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        this.credentialCache = credentialCache;
+        this.userService = userService;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null && credentialCache.isVerified(
+                userDetails.getUsername(), userDetails.getPassword(), userDetails.isEnabled(), credentials.toString())) {
+            return;
+        }
+
+        // Full hash verification; throws BadCredentialsException on mismatch
+        super.additionalAuthenticationChecks(userDetails, authentication);
+
+        credentialCache.recordVerified(
+                userDetails.getUsername(), userDetails.getPassword(), userDetails.isEnabled(), credentials.toString());
+        userService.upgradePasswordHash(userDetails.getUsername(), userDetails.getPassword(), credentials.toString());
+    }
+}
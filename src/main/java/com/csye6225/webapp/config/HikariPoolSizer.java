@@ -0,0 +1,44 @@
+package com.csye6225.webapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool from the host's core count: (cores * connections-per-core) + spindle-count,
+ * as a fixed-size pool, unless db.pool.size pins an explicit size.
+ * Only active with db.pool.auto-size=true (the prod profile).
+ */
+@Component
+@ConditionalOnProperty(name = "db.pool.auto-size", havingValue = "true")
+public class HikariPoolSizer implements BeanPostProcessor {
+
+    private final int fixedSize;
+    private final int connectionsPerCore;
+    private final int spindleCount;
+
+    public HikariPoolSizer(@Value("${db.pool.size:0}") int fixedSize,
+                           @Value("${db.pool.connections-per-core:2}") int connectionsPerCore,
+                           @Value("${db.pool.spindle-count:1}") int spindleCount) {
+        this.fixedSize = fixedSize;
+        this.connectionsPerCore = connectionsPerCore;
+        this.spindleCount = spindleCount;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Runs after spring.datasource.hikari.* is bound and before the pool opens its first connection
+        if (bean instanceof HikariDataSource dataSource) {
+            int size = fixedSize > 0 ? fixedSize : poolSize(Runtime.getRuntime().availableProcessors());
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(size);
+        }
+        return bean;
+    }
+
+    private int poolSize(int cores) {
+        return cores * connectionsPerCore + spindleCount;
+    }
+}
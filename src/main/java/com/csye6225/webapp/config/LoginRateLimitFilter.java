@@ -0,0 +1,67 @@
+package com.csye6225.webapp.config;
+
+import com.csye6225.webapp.dto.ErrorResponse;
+import com.csye6225.webapp.service.LoginAttemptLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Answers 429 to Basic-authenticated requests whose client IP, or username from that IP, has too
+ * many recent login failures, before the Basic filter looks the user up or hashes the password.
+ * Behind the load balancer the remote address is the client's, taken from X-Forwarded-For by
+ * Tomcat for trusted proxies only.
+ * Not a bean: SecurityConfig adds it ahead of BasicAuthenticationFilter when the limiter is enabled.
+ */
+class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final LoginAttemptLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    LoginRateLimitFilter(LoginAttemptLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())
+                || !limiter.isBlocked(request.getRemoteAddr(), username(header))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(limiter.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8");
+        ErrorResponse error = new ErrorResponse("Too Many Requests",
+                "Too many failed login attempts, please retry later", request.getRequestURI());
+        response.getWriter().write(objectMapper.writeValueAsString(error));
+    }
+
+    // Username part of a Basic header; null when malformed (the Basic filter rejects it anyway)
+    private static String username(String header) {
+        try {
+            String decoded = new String(Base64.getDecoder().decode(header.substring(BASIC_PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+            int colon = decoded.indexOf(':');
+            return colon < 0 ? null : decoded.substring(0, colon);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.csye6225.webapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class MetadataConfig {
+
+    @Value("${metadata.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    /**
+     * Shared client for the cloud instance-metadata endpoints; keeps connections alive
+     * across calls and lets fetches run concurrently.
+     */
+    @Bean
+    public HttpClient metadataHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.csye6225.webapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The application's single password-hash engine.
+ * New hashes use auth.password.algorithm and are stored with an {id} prefix; any supported
+ * algorithm verifies, and unprefixed hashes written before the prefix existed are read as BCrypt.
+ * A hash in another algorithm or at lower cost is upgraded after the next successful login.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    // Cost used to time one hash during calibration; each +1 doubles the work
+    private static final int CALIBRATION_STRENGTH = 8;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    // Argon2 salt/hash lengths and lanes as in Spring Security's defaults
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+
+    @Value("${auth.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${auth.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    @Value("${auth.password.bcrypt-target:PT0.25S}")
+    private Duration bcryptTarget;
+
+    @Value("${auth.password.bcrypt-min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${auth.password.bcrypt-max-strength:16}")
+    private int bcryptMaxStrength;
+
+    @Value("${auth.password.argon2-memory-kib:16384}")
+    private int argon2MemoryKib;
+
+    @Value("${auth.password.argon2-iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${auth.password.pbkdf2-iterations:310000}")
+    private int pbkdf2Iterations;
+
+    /**
+     * BCrypt's cost is calibrated at startup to the target duration unless fixed by auth.password.bcrypt-strength
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : calibrateBcrypt(bcryptTarget, bcryptMinStrength, bcryptMaxStrength);
+        return delegatingEncoder(algorithm,
+                encoders(strength, argon2MemoryKib, argon2Iterations, pbkdf2Iterations), meterRegistry);
+    }
+
+    /**
+     * Supported algorithms by {id}
+     */
+    public static Map<String, PasswordEncoder> encoders(int bcryptStrength, int argon2MemoryKib,
+                                                        int argon2Iterations, int pbkdf2Iterations) {
+        Map<String, PasswordEncoder> encoders = new LinkedHashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put(ARGON2, new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                ARGON2_PARALLELISM, argon2MemoryKib, argon2Iterations));
+        encoders.put(PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        return encoders;
+    }
+
+    /**
+     * Delegating encoder writing encodingId hashes, with every algorithm timed
+     *
+     * @throws IllegalArgumentException if encodingId is not one of the encoders
+     */
+    public static PasswordEncoder delegatingEncoder(String encodingId, Map<String, PasswordEncoder> encoders,
+                                                    MeterRegistry meterRegistry) {
+        Map<String, PasswordEncoder> timed = new LinkedHashMap<>();
+        encoders.forEach((id, encoder) -> timed.put(id, new TimedPasswordEncoder(id, encoder, meterRegistry)));
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encodingId, timed);
+        delegating.setDefaultPasswordEncoderForMatches(timed.get(BCRYPT));
+        return delegating;
+    }
+
+    /**
+     * Highest BCrypt cost whose estimated hash time stays within the target, clamped to [min, max].
+     * Only the cheap calibration cost is timed; higher costs are extrapolated by doubling.
+     */
+    static int calibrateBcrypt(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = CALIBRATION_STRENGTH;
+        long estimate = Math.max(best, 1);
+        while (strength < maxStrength && estimate * 2 <= target.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        return Math.max(minStrength, Math.min(strength, maxStrength));
+    }
+}
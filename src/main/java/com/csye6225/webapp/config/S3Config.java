@@ -1,11 +1,18 @@
 package com.csye6225.webapp.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
 
 @Configuration
 public class S3Config {
@@ -13,6 +20,16 @@ public class S3Config {
     @Value("${aws.region:us-east-1}")
     private String region;
 
+    // Optional endpoint override (e.g. a local S3 stand-in); implies path-style addressing
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.multipart-threshold:16MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${aws.s3.part-size:8MB}")
+    private DataSize partSize;
+
     @Bean
     @ConditionalOnProperty(name = "aws.s3.bucket-name", havingValue = "", matchIfMissing = true)
     public S3Client noOpS3Client() {
@@ -23,8 +40,33 @@ public class S3Config {
     @Bean
     @ConditionalOnProperty(name = "aws.s3.bucket-name", matchIfMissing = false)
     public S3Client s3Client() {
-        return S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Non-blocking client (Netty) used when aws.s3.async-enabled=true.
+     * Large objects are split by the SDK's multipart client using the same
+     * threshold/part size as the synchronous path. Each call buffers a single part; S3Service
+     * counts every async multipart upload against the shared part-buffer pool.
+     */
+    @Bean
+    @ConditionalOnExpression("'${aws.s3.bucket-name:}' != '' and ${aws.s3.async-enabled:false}")
+    public S3AsyncClient s3AsyncClient() {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
                 .region(Region.of(region))
-                .build();
+                .multipartEnabled(true)
+                .multipartConfiguration(multipart -> multipart
+                        .thresholdInBytes(Math.max(multipartThreshold.toBytes(), partSize.toBytes()))
+                        .minimumPartSizeInBytes(partSize.toBytes())
+                        .apiCallBufferSizeInBytes(partSize.toBytes()));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
     }
 }
@@ -1,19 +1,26 @@
 package com.csye6225.webapp.config;
 
+import com.csye6225.webapp.service.AuthTokenService;
+import com.csye6225.webapp.service.CredentialCache;
 import com.csye6225.webapp.service.CustomUserDetailsService;
+import com.csye6225.webapp.service.LoginAttemptLimiter;
+import com.csye6225.webapp.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import java.util.Collections;
 
 @Configuration
@@ -29,20 +36,42 @@ public class SecurityConfig {
     @Autowired
     private CustomAccessDeniedHandler accessDeniedHandler;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private UserService userService;
+
+    // The delegating engine from PasswordEncoderConfig
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    // Failed logins are published as events for LoginAttemptLimiter
+    @Autowired
+    private AuthenticationEventPublisher authenticationEventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Accept bearer tokens from POST /v1/token on the course and user-self endpoints
+    @Value("${auth.token.enabled:false}")
+    private boolean tokenAuthEnabled;
 
     /**
      * 1. Configure Authentication Provider
      * Key: setHideUserNotFoundExceptions(false) ensures that 404 errors can be thrown
+     * Recently verified credentials are served from CredentialCache instead of re-hashing the password
      */
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        DaoAuthenticationProvider provider =
+                new CachingDaoAuthenticationProvider(userDetailsService, passwordEncoder, credentialCache, userService);
         provider.setHideUserNotFoundExceptions(false); // Allow 404
         return provider;
     }
@@ -54,7 +83,9 @@ public class SecurityConfig {
      */
     @Bean
     public AuthenticationManager authenticationManager() {
-        return new ProviderManager(Collections.singletonList(authenticationProvider()));
+        ProviderManager manager = new ProviderManager(Collections.singletonList(authenticationProvider()));
+        manager.setAuthenticationEventPublisher(authenticationEventPublisher);
+        return manager;
     }
 
     @Bean
@@ -66,6 +97,8 @@ public class SecurityConfig {
             )
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/healthz").permitAll()
+                // Served on management.server.port only, which the load balancer does not expose
+                .requestMatchers("/actuator/prometheus").permitAll()
                 .requestMatchers("/v1/metadata").permitAll()
                 .requestMatchers(HttpMethod.POST, "/v1/user").permitAll()
                 .requestMatchers("/v1/metadata").permitAll()
@@ -83,6 +116,18 @@ public class SecurityConfig {
             // This way, when Basic Auth fails, our EntryPoint is called directly instead of throwing InsufficientAuthenticationException
             .httpBasic(basic -> basic.authenticationEntryPoint(authEntryPoint));
 
+        // 5. Clients with too many recent failures are refused before Basic verification runs
+        if (loginAttemptLimiter.isEnabled()) {
+            http.addFilterBefore(new LoginRateLimitFilter(loginAttemptLimiter, objectMapper),
+                    BasicAuthenticationFilter.class);
+        }
+
+        // 6. Bearer tokens are checked ahead of Basic so a valid one never reaches the password hash
+        if (tokenAuthEnabled) {
+            http.addFilterBefore(new BearerTokenAuthenticationFilter(authTokenService, authEntryPoint),
+                    BasicAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 }
\ No newline at end of file
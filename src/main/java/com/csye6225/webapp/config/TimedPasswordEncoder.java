@@ -0,0 +1,54 @@
+package com.csye6225.webapp.config;
+
+import com.csye6225.webapp.service.OutcomeTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * One algorithm of the delegating encoder, timed as auth.password.hash / auth.password.verify
+ * tagged with the algorithm id; a verify's outcome is whether the password matched.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final OutcomeTimers hashTimers;
+    private final OutcomeTimers verifyTimers;
+
+    public TimedPasswordEncoder(String algorithm, PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hashTimers = OutcomeTimers.register(meterRegistry, "auth.password.hash",
+                "New password hashes", "algorithm", algorithm);
+        this.verifyTimers = OutcomeTimers.register(meterRegistry, "auth.password.verify",
+                "Full password hash verifications (credential cache misses)", "algorithm", algorithm);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            String encoded = delegate.encode(rawPassword);
+            succeeded = true;
+            return encoded;
+        } finally {
+            hashTimers.record(start, succeeded);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matched = false;
+        try {
+            matched = delegate.matches(rawPassword, encodedPassword);
+            return matched;
+        } finally {
+            verifyTimers.record(start, matched);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
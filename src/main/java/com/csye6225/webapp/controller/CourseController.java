@@ -1,19 +1,39 @@
 package com.csye6225.webapp.controller;
 
 import com.csye6225.webapp.dto.CourseCreateRequest;
+import com.csye6225.webapp.dto.CourseCursor;
+import com.csye6225.webapp.dto.CourseImportResult;
 import com.csye6225.webapp.dto.CourseResponse;
 import com.csye6225.webapp.dto.CourseUpdateRequest;
 import com.csye6225.webapp.dto.ErrorResponse;
+import com.csye6225.webapp.dto.ResourceVersion;
+import com.csye6225.webapp.service.CourseCatalogCache;
 import com.csye6225.webapp.service.CourseService;
+import com.csye6225.webapp.service.JsonResponseCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 @RestController
@@ -26,6 +46,36 @@ public class CourseController {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
+    // Rows read, validated and duplicate-checked together by POST /v1/courses/import
+    @Value("${courses.import.chunk-size:500}")
+    private int importChunkSize;
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    // Allowed (mutable) fields for PUT /v1/courses/{id}
+    private static final Set<String> UPDATABLE_FIELDS =
+            Set.of("title", "credit_hours", "classification", "description", "prerequisites");
+
+    // Per-element writers: the servlet stream is flushed once at the end (or per import chunk), not per value
+    private ObjectWriter courseWriter;
+    private ObjectWriter importResultWriter;
+
+    @PostConstruct
+    void initWriters() {
+        courseWriter = objectMapper.writerFor(CourseResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        importResultWriter = objectMapper.writerFor(CourseImportResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
     /**
      * POST /v1/courses — Create a new course
      */
@@ -56,29 +106,195 @@ public class CourseController {
     }
 
     /**
-     * GET /v1/courses — List all courses
+     * POST /v1/courses/import — Create many courses from a JSON array or an NDJSON stream
+     * The body is read in chunks; each chunk is validated, duplicate-checked with one query and
+     * inserted in JDBC batches. One result per row is streamed back (as a JSON array or NDJSON,
+     * matching the request) after each chunk, so the response is always 200 with per-row statuses.
+     * Malformed JSON ends the import with a final 400 row; earlier chunks stay committed.
      */
-    @GetMapping
-    public ResponseEntity<?> getAllCourses() {
-        List<CourseResponse> courses = courseService.getAllCourses();
-        return ResponseEntity.ok(courses);
+    @PostMapping("/import")
+    public ResponseEntity<?> importCourses(
+            @RequestHeader(value = "Content-Type", required = false) String contentType,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
+
+        boolean ndjson = contentType != null && contentType.contains(NDJSON);
+        if (!ndjson && (contentType == null || !contentType.contains("application/json"))) {
+            ErrorResponse error = new ErrorResponse("Unsupported Media Type",
+                    "Content-Type must be application/json or " + NDJSON, httpRequest.getRequestURI());
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(error);
+        }
+
+        httpResponse.setStatus(HttpStatus.OK.value());
+        httpResponse.setContentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON_VALUE);
+
+        // A root-level array is unwrapped, so both formats iterate one course object at a time
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class)
+                     .readValues(httpRequest.getInputStream());
+             JsonGenerator generator = objectMapper.createGenerator(httpResponse.getOutputStream())) {
+            if (ndjson) {
+                // One object per line, without the default space between root-level values
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+
+            int index = 0;
+            SortedMap<Integer, CourseImportResult> results = new TreeMap<>();
+            Map<Integer, CourseCreateRequest> chunk = new LinkedHashMap<>();
+            try {
+                while (rows.hasNextValue()) {
+                    CourseCreateRequest request = toImportRequest(rows.nextValue());
+                    String invalid = request != null ? firstViolation(request) : "Each course must be a JSON object";
+                    if (invalid != null) {
+                        results.put(index, CourseImportResult.invalid(index, invalid));
+                    } else {
+                        chunk.put(index, request);
+                    }
+                    if (++index % importChunkSize == 0) {
+                        writeImportChunk(generator, ndjson, chunk, results);
+                    }
+                }
+                writeImportChunk(generator, ndjson, chunk, results);
+            } catch (JsonProcessingException e) {
+                writeImportChunk(generator, ndjson, chunk, results);
+                writeImportResult(generator, ndjson, CourseImportResult.invalid(index, "Malformed JSON request"));
+            }
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+
+        // Body already written to the response stream
+        return null;
+    }
+
+    /**
+     * GET /v1/courses — List courses ordered by department_code and number
+     * Without limit/after the full (optionally filtered) catalog is returned as a JSON array.
+     * With limit and/or after a keyset page is returned as {"courses": [...], "next_cursor": ...}.
+     * Rows are written to the response stream as they are read, never collected into a list.
+     * The ETag is the aggregate catalog version; a matching If-None-Match gets 304 before any row is read.
+     * The unfiltered full listing is written from pre-serialized bytes for the cached catalog version.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getAllCourses(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "department_code", required = false) String departmentCode,
+            @RequestParam(value = "classification", required = false) String classification,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse,
+            WebRequest webRequest) throws IOException {
+
+        boolean paged = limit != null || after != null;
+
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            ErrorResponse error = new ErrorResponse("Bad Request",
+                    "limit must be between 1 and " + MAX_PAGE_SIZE, httpRequest.getRequestURI());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        CourseCursor cursor = null;
+        if (after != null) {
+            try {
+                cursor = CourseCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                ErrorResponse error = new ErrorResponse("Bad Request",
+                        "Invalid cursor", httpRequest.getRequestURI());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+        }
+
+        // The whole catalog, served as one body built from the snapshot whose version is sent
+        if (!paged && departmentCode == null && classification == null) {
+            CourseCatalogCache.Catalog catalog = courseService.getCatalog();
+            if (catalog.isComplete()) {
+                ResourceVersion version = catalog.version();
+                httpResponse.setHeader(HttpHeaders.CACHE_CONTROL, ResourceVersion.CACHE_CONTROL);
+                if (!webRequest.checkNotModified(version.getETag(), version.getLastModified())) {
+                    JsonBody.write(httpResponse,
+                            jsonResponseCache.get("courses", "all", version.getETag(), catalog::courses));
+                }
+                return null;
+            }
+        }
+
+        // Sets ETag/Last-Modified on the response, and the status to 304 if the client is current
+        ResourceVersion version = courseService.getCatalogVersion();
+        httpResponse.setHeader(HttpHeaders.CACHE_CONTROL, ResourceVersion.CACHE_CONTROL);
+        if (webRequest.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+
+        httpResponse.setStatus(HttpStatus.OK.value());
+        httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        try (JsonGenerator generator = objectMapper.createGenerator(httpResponse.getOutputStream())) {
+            if (paged) {
+                generator.writeStartObject();
+                generator.writeFieldName("courses");
+            }
+            generator.writeStartArray();
+
+            CourseCursor next = courseService.streamCourses(departmentCode, classification, cursor,
+                    paged ? (limit != null ? limit : DEFAULT_PAGE_SIZE) : null,
+                    course -> {
+                        try {
+                            courseWriter.writeValue(generator, course);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+
+            generator.writeEndArray();
+            if (paged) {
+                generator.writeStringField("next_cursor", next != null ? next.encode() : null);
+                generator.writeEndObject();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Body already written to the response stream
+        return null;
     }
 
     /**
      * GET /v1/courses/{course_id} — Get a single course
+     * A matching If-None-Match / If-Modified-Since gets 304 from the course's date_updated alone.
+     * The 200 body is pre-serialized JSON, reused until the course's version changes.
      */
-    @GetMapping("/{course_id}")
+    @GetMapping(value = "/{course_id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> getCourseById(
             @PathVariable("course_id") UUID courseId,
-            HttpServletRequest httpRequest) {
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse,
+            WebRequest webRequest) throws IOException {
+        Optional<ResourceVersion> version = courseService.getCourseVersion(courseId);
+        if (version.isPresent() && webRequest.checkNotModified(version.get().getETag(), version.get().getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, ResourceVersion.CACHE_CONTROL)
+                    .build();
+        }
+
+        CourseResponse response;
         try {
-            CourseResponse response = courseService.getCourseById(courseId);
-            return ResponseEntity.ok(response);
+            response = courseService.getCourseById(courseId);
         } catch (RuntimeException e) {
             ErrorResponse error = new ErrorResponse("Not Found",
                     "Course not found", httpRequest.getRequestURI());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
         }
+
+        // Validators of the body actually returned, in case it changed since the version check
+        ResourceVersion current = ResourceVersion.of(response.getDateUpdated());
+        JsonBody.setVersion(httpResponse, current.getETag(), current.getLastModified(), ResourceVersion.CACHE_CONTROL);
+        JsonBody.write(httpResponse, jsonResponseCache.get("course", courseId, current.getETag(), () -> response));
+
+        // Body already written to the response stream
+        return null;
     }
 
     /**
@@ -109,24 +325,13 @@ public class CourseController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            // Define allowed (mutable) fields
-            Set<String> allowedFields = new HashSet<>();
-            allowedFields.add("title");
-            allowedFields.add("credit_hours");
-            allowedFields.add("classification");
-            allowedFields.add("description");
-            allowedFields.add("prerequisites");
-
             // Check for immutable / disallowed fields
-            Iterator<String> fieldNames = jsonNode.fieldNames();
-            while (fieldNames.hasNext()) {
-                String field = fieldNames.next();
-                if (!allowedFields.contains(field)) {
-                    ErrorResponse error = new ErrorResponse("Bad Request",
-                            "Field '" + field + "' cannot be updated",
-                            httpRequest.getRequestURI());
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-                }
+            String disallowedField = findDisallowedUpdateField(jsonNode);
+            if (disallowedField != null) {
+                ErrorResponse error = new ErrorResponse("Bad Request",
+                        "Field '" + disallowedField + "' cannot be updated",
+                        httpRequest.getRequestURI());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
             // Parse and perform update
@@ -173,4 +378,68 @@ public class CourseController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
         }
     }
+
+    /**
+     * Bind an import row, or null if it is not an object or a field has the wrong type
+     */
+    private CourseCreateRequest toImportRequest(JsonNode row) {
+        if (!row.isObject()) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(row, CourseCreateRequest.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Message of the first violated field (by name), or null if the request is valid;
+     * like the single-course endpoint, only one error is reported per row
+     */
+    private String firstViolation(CourseCreateRequest request) {
+        return validator.validate(request).stream()
+                .min(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .orElse(null);
+    }
+
+    /**
+     * Insert the pending chunk, then write its results (including rejected rows) in row order
+     */
+    private void writeImportChunk(JsonGenerator generator, boolean ndjson, Map<Integer, CourseCreateRequest> chunk,
+                                  SortedMap<Integer, CourseImportResult> results) throws IOException {
+        if (!chunk.isEmpty()) {
+            courseService.importCourses(chunk)
+                    .forEach(result -> results.put(result.getIndex(), result));
+            chunk.clear();
+        }
+        for (CourseImportResult result : results.values()) {
+            writeImportResult(generator, ndjson, result);
+        }
+        results.clear();
+        generator.flush();
+    }
+
+    private void writeImportResult(JsonGenerator generator, boolean ndjson, CourseImportResult result)
+            throws IOException {
+        importResultWriter.writeValue(generator, result);
+        if (ndjson) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * First field in an update body that is not allowed to change, or null if all are allowed
+     */
+    public static String findDisallowedUpdateField(JsonNode updateBody) {
+        Iterator<String> fieldNames = updateBody.fieldNames();
+        while (fieldNames.hasNext()) {
+            String field = fieldNames.next();
+            if (!UPDATABLE_FIELDS.contains(field)) {
+                return field;
+            }
+        }
+        return null;
+    }
 }
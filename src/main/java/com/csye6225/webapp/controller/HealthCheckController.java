@@ -1,7 +1,6 @@
 package com.csye6225.webapp.controller;
 
-import com.csye6225.webapp.entity.HealthCheck;
-import com.csye6225.webapp.repository.HealthCheckRepository;
+import com.csye6225.webapp.service.HealthCheckService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -13,7 +12,7 @@ import org.springframework.web.bind.annotation.*;
 public class HealthCheckController {
     
     @Autowired
-    private HealthCheckRepository healthCheckRepository;
+    private HealthCheckService healthCheckService;
     
     @GetMapping("/healthz")
     public ResponseEntity<Void> healthCheck(
@@ -38,18 +37,15 @@ public class HealthCheckController {
                     .build();
         }
         
-        try {
-            // Insert health check record
-            HealthCheck healthCheck = new HealthCheck();
-            healthCheckRepository.save(healthCheck);
-            
+        // Validate a pooled DB connection; concurrent probes share one check
+        if (healthCheckService.isHealthy()) {
             // Return 200 OK
             return ResponseEntity.ok()
                     .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
                     .header("Pragma", "no-cache")
                     .header("X-Content-Type-Options", "nosniff")
                     .build();
-        } catch (Exception e) {
+        } else {
             // Database connection failed, return 503
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
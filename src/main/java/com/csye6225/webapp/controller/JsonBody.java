@@ -0,0 +1,37 @@
+package com.csye6225.webapp.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+
+/**
+ * Writes pre-serialized JSON straight to the servlet response, bypassing the
+ * ResponseEntity / HttpMessageConverter pipeline. Handlers return null afterwards.
+ * Callers declare produces = application/json so Accept is still negotiated (406) at mapping time.
+ */
+final class JsonBody {
+
+    private JsonBody() {
+    }
+
+    static void write(HttpServletResponse response, byte[] json) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(json.length);
+        response.getOutputStream().write(json);
+    }
+
+    /**
+     * Conditional-GET validators for a versioned body
+     */
+    static void setVersion(HttpServletResponse response, String eTag, long lastModified, String cacheControl) {
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        if (lastModified >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+    }
+}
@@ -1,17 +1,27 @@
 package com.csye6225.webapp.controller;
 
 import com.csye6225.webapp.dto.ErrorResponse;
+import com.csye6225.webapp.dto.ResourceVersion;
 import com.csye6225.webapp.dto.SyllabusResponse;
+import com.csye6225.webapp.exception.UploadCapacityExceededException;
+import com.csye6225.webapp.service.JsonResponseCache;
 import com.csye6225.webapp.service.SyllabusService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/v1/courses/{course_id}/syllabus")
@@ -20,14 +30,22 @@ public class SyllabusController {
     @Autowired
     private SyllabusService syllabusService;
 
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
     /**
      * POST /v1/courses/{course_id}/syllabus — Upload syllabus file
+     * With aws.s3.async-enabled=true the handler returns the upload's future, so the servlet thread
+     * is released while the file is in flight to S3; otherwise the upload runs in this request and
+     * the ResponseEntity is returned directly. Spring picks the return value handler from the
+     * returned object, hence the Object return type.
      */
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> uploadSyllabus(
+    public Object uploadSyllabus(
             @PathVariable("course_id") String courseId,
             @RequestParam(value = "file", required = false) MultipartFile file,
             HttpServletRequest request) {
+        String path = request.getRequestURI();
         try {
             UUID id = UUID.fromString(courseId);
 
@@ -36,49 +54,57 @@ public class SyllabusController {
                 ErrorResponse error = new ErrorResponse(
                     "Bad Request",
                     "File must not be null or empty",
-                    request.getRequestURI()
+                    path
                 );
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            SyllabusResponse response = syllabusService.uploadSyllabus(id, file);
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .header("Location", "/v1/courses/" + courseId + "/syllabus")
-                    .body(response);
-
-        } catch (IllegalArgumentException e) {
-            if (e.getMessage() != null && e.getMessage().contains("already exists")) {
-                ErrorResponse error = new ErrorResponse("Conflict", e.getMessage(), request.getRequestURI());
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+            if (!syllabusService.isAsyncEnabled()) {
+                return created(courseId, syllabusService.uploadSyllabus(id, file));
             }
-            // Invalid UUID format
-            ErrorResponse error = new ErrorResponse("Not Found", "Course not found", request.getRequestURI());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-        } catch (RuntimeException e) {
-            if (e.getMessage() != null && e.getMessage().contains("Course not found")) {
-                ErrorResponse error = new ErrorResponse("Not Found", "Course not found", request.getRequestURI());
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-            }
-            ErrorResponse error = new ErrorResponse("Internal Server Error", "Error uploading syllabus", request.getRequestURI());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+
+            // Failures before the transfer starts (conflict, unknown course) are thrown here and answered synchronously
+            CompletableFuture<ResponseEntity<?>> response = syllabusService.uploadSyllabusAsync(id, file)
+                    .handle((uploaded, error) -> error == null
+                            ? created(courseId, uploaded) : uploadError(unwrap(error), path));
+            return response;
+
         } catch (Exception e) {
-            ErrorResponse error = new ErrorResponse("Internal Server Error", "Error uploading syllabus", request.getRequestURI());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return uploadError(e, path);
         }
     }
 
+    private static ResponseEntity<?> created(String courseId, SyllabusResponse response) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .header("Location", "/v1/courses/" + courseId + "/syllabus")
+                .body(response);
+    }
+
     /**
      * GET /v1/courses/{course_id}/syllabus — Get syllabus metadata
+     * A matching If-None-Match / If-Modified-Since gets 304 from the syllabus's date_updated alone.
+     * The 200 body is pre-serialized JSON, reused until the syllabus's version changes.
      */
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> getSyllabus(
             @PathVariable("course_id") String courseId,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            HttpServletResponse httpResponse,
+            WebRequest webRequest) throws IOException {
+        UUID id;
+        SyllabusResponse response;
         try {
-            UUID id = UUID.fromString(courseId);
-            SyllabusResponse response = syllabusService.getSyllabus(id);
-            return ResponseEntity.ok(response);
+            id = UUID.fromString(courseId);
+            Optional<ResourceVersion> version = syllabusService.getSyllabusVersion(id);
+            if (version.isPresent()
+                    && webRequest.checkNotModified(version.get().getETag(), version.get().getLastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.CACHE_CONTROL, ResourceVersion.CACHE_CONTROL)
+                        .build();
+            }
+
+            response = syllabusService.getSyllabus(id);
         } catch (IllegalArgumentException e) {
             ErrorResponse error = new ErrorResponse("Not Found", "Course not found", request.getRequestURI());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
@@ -94,10 +120,18 @@ public class SyllabusController {
             ErrorResponse error = new ErrorResponse("Internal Server Error", "Error retrieving syllabus", request.getRequestURI());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
+
+        ResourceVersion current = ResourceVersion.of(response.getDateUpdated());
+        JsonBody.setVersion(httpResponse, current.getETag(), current.getLastModified(), ResourceVersion.CACHE_CONTROL);
+        JsonBody.write(httpResponse, jsonResponseCache.get("syllabus", id, current.getETag(), () -> response));
+
+        // Body already written to the response stream
+        return null;
     }
 
     /**
      * DELETE /v1/courses/{course_id}/syllabus — Delete syllabus
+     * The S3 object is removed in the background after the DB change commits.
      */
     @DeleteMapping
     public ResponseEntity<?> deleteSyllabus(
@@ -107,20 +141,54 @@ public class SyllabusController {
             UUID id = UUID.fromString(courseId);
             syllabusService.deleteSyllabus(id);
             return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            ErrorResponse error = new ErrorResponse("Not Found", "Course not found", request.getRequestURI());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-        } catch (RuntimeException e) {
-            if (e.getMessage() != null && e.getMessage().contains("Course not found")) {
-                ErrorResponse error = new ErrorResponse("Not Found", "Course not found", request.getRequestURI());
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-            }
-            if (e.getMessage() != null && e.getMessage().contains("No syllabus found")) {
-                ErrorResponse error = new ErrorResponse("Not Found", e.getMessage(), request.getRequestURI());
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            return deleteError(e, request.getRequestURI());
+        }
+    }
+
+    private ResponseEntity<?> uploadError(Throwable e, String path) {
+        if (e instanceof UploadCapacityExceededException) {
+            // Every S3 part buffer is busy: ask the client to retry shortly
+            ErrorResponse error = new ErrorResponse("Service Unavailable",
+                    "Too many uploads in progress, please retry", path);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+        }
+        if (e instanceof IllegalArgumentException) {
+            if (e.getMessage() != null && e.getMessage().contains("already exists")) {
+                ErrorResponse error = new ErrorResponse("Conflict", e.getMessage(), path);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
             }
-            ErrorResponse error = new ErrorResponse("Internal Server Error", "Error deleting syllabus", request.getRequestURI());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            // Invalid UUID format
+            ErrorResponse error = new ErrorResponse("Not Found", "Course not found", path);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        if (e instanceof RuntimeException && e.getMessage() != null && e.getMessage().contains("Course not found")) {
+            ErrorResponse error = new ErrorResponse("Not Found", "Course not found", path);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        ErrorResponse error = new ErrorResponse("Internal Server Error", "Error uploading syllabus", path);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+
+    private ResponseEntity<?> deleteError(Throwable e, String path) {
+        if (e instanceof IllegalArgumentException) {
+            ErrorResponse error = new ErrorResponse("Not Found", "Course not found", path);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        if (e.getMessage() != null && e.getMessage().contains("Course not found")) {
+            ErrorResponse error = new ErrorResponse("Not Found", "Course not found", path);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
         }
+        if (e.getMessage() != null && e.getMessage().contains("No syllabus found")) {
+            ErrorResponse error = new ErrorResponse("Not Found", e.getMessage(), path);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        ErrorResponse error = new ErrorResponse("Internal Server Error", "Error deleting syllabus", path);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+
+    // Async stages wrap failures in CompletionException
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
 }
@@ -0,0 +1,38 @@
+package com.csye6225.webapp.controller;
+
+import com.csye6225.webapp.dto.TokenResponse;
+import com.csye6225.webapp.service.AuthTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exchange HTTP Basic credentials for a short-lived bearer token (auth.token.enabled=true).
+ * Only Basic is accepted here, so a token cannot be used to extend itself.
+ */
+@RestController
+@RequestMapping("/v1/token")
+@ConditionalOnProperty(name = "auth.token.enabled", havingValue = "true")
+public class TokenController {
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    /**
+     * POST /v1/token — Issue a bearer token for the Basic-authenticated user
+     */
+    @PostMapping
+    public ResponseEntity<TokenResponse> issueToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String token = authTokenService.issue(authentication.getName());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(new TokenResponse(token, authTokenService.getTtl().toSeconds()));
+    }
+}
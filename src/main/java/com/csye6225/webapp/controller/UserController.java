@@ -5,18 +5,24 @@ import com.csye6225.webapp.dto.UserCreateRequest;
 import com.csye6225.webapp.dto.UserResponse;
 import com.csye6225.webapp.dto.UserUpdateRequest;
 import com.csye6225.webapp.entity.User;
+import com.csye6225.webapp.exception.HashingCapacityExceededException;
+import com.csye6225.webapp.service.JsonResponseCache;
 import com.csye6225.webapp.service.UserService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -31,6 +37,9 @@ public class UserController {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+    
     // Create User (POST) - Keep existing logic
     @PostMapping
     public ResponseEntity<?> createUser(
@@ -42,24 +51,31 @@ public class UserController {
         } catch (IllegalArgumentException e) {
             ErrorResponse error = new ErrorResponse("Conflict", e.getMessage(), httpRequest.getRequestURI());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (HashingCapacityExceededException e) {
+            return hashingBusy(httpRequest);
         } catch (Exception e) {
             ErrorResponse error = new ErrorResponse("Internal Server Error", "Error creating user", httpRequest.getRequestURI());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
     
-    // Get User (GET) - Keep existing logic
-    @GetMapping("/self")
-    public ResponseEntity<?> getCurrentUser(HttpServletRequest httpRequest) {
+    // Get User (GET) - body is pre-serialized JSON, reused until account_updated changes
+    @GetMapping(value = "/self", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getCurrentUser(HttpServletRequest httpRequest, HttpServletResponse httpResponse)
+            throws IOException {
+        User user;
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String username = authentication.getName();
-            User user = userService.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
-            return ResponseEntity.ok(userService.mapToResponse(user));
+            user = userService.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
         } catch (Exception e) {
             ErrorResponse error = new ErrorResponse("Validation Error", "User account not found", httpRequest.getRequestURI());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
         }
+        
+        JsonBody.write(httpResponse, jsonResponseCache.get("user", user.getId(), user.getAccountUpdated(),
+                () -> userService.mapToResponse(user)));
+        return null;
     }
     
     // Update User (PUT) - Logic Corrected Here
@@ -127,9 +143,18 @@ public class UserController {
             // Return 204 No Content
             return ResponseEntity.noContent().build();
             
+        } catch (HashingCapacityExceededException e) {
+            return hashingBusy(httpRequest);
         } catch (Exception e) {
             ErrorResponse error = new ErrorResponse("Bad Request", "Invalid JSON format", httpRequest.getRequestURI());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
     }
+    
+    // Password hashing concurrency limit reached: ask the client to retry shortly
+    private ResponseEntity<?> hashingBusy(HttpServletRequest httpRequest) {
+        ErrorResponse error = new ErrorResponse("Too Many Requests",
+                "Too many password changes in progress, please retry", httpRequest.getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.csye6225.webapp.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for course listing.
+ * Encodes the (department_code, number) of the last course on a page as URL-safe Base64.
+ */
+public class CourseCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final String departmentCode;
+    private final String number;
+
+    public CourseCursor(String departmentCode, String number) {
+        this.departmentCode = departmentCode;
+        this.number = number;
+    }
+
+    /**
+     * Parse a cursor previously produced by {@link #encode()}.
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static CourseCursor decode(String value) {
+        String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == decoded.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new CourseCursor(decoded.substring(0, separator), decoded.substring(separator + 1));
+    }
+
+    public String encode() {
+        String raw = departmentCode + SEPARATOR + number;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getDepartmentCode() { return departmentCode; }
+    public String getNumber() { return number; }
+}
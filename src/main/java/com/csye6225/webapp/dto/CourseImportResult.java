@@ -0,0 +1,57 @@
+package com.csye6225.webapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Outcome of one row of a bulk course import.
+ * index is the row's zero-based position in the request; status mirrors the single-course
+ * endpoint (201 created, 400 invalid, 409 duplicate). Successful rows carry the course,
+ * failed rows carry error/message in the same wording as ErrorResponse.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "index", "status", "course", "error", "message" })
+public class CourseImportResult {
+
+    @JsonProperty("index")
+    private final int index;
+
+    @JsonProperty("status")
+    private final int status;
+
+    @JsonProperty("course")
+    private final CourseResponse course;
+
+    @JsonProperty("error")
+    private final String error;
+
+    @JsonProperty("message")
+    private final String message;
+
+    private CourseImportResult(int index, int status, CourseResponse course, String error, String message) {
+        this.index = index;
+        this.status = status;
+        this.course = course;
+        this.error = error;
+        this.message = message;
+    }
+
+    public static CourseImportResult created(int index, CourseResponse course) {
+        return new CourseImportResult(index, 201, course, null, null);
+    }
+
+    public static CourseImportResult invalid(int index, String message) {
+        return new CourseImportResult(index, 400, null, "Validation Error", message);
+    }
+
+    public static CourseImportResult conflict(int index, String message) {
+        return new CourseImportResult(index, 409, null, "Conflict", message);
+    }
+
+    public int getIndex() { return index; }
+    public int getStatus() { return status; }
+    public CourseResponse getCourse() { return course; }
+    public String getError() { return error; }
+    public String getMessage() { return message; }
+}
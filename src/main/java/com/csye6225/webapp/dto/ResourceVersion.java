@@ -0,0 +1,71 @@
+package com.csye6225.webapp.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Validators for conditional GETs: a strong ETag and a Last-Modified time derived from
+ * date_updated (plus the row count for collections), so a poll can be answered with 304
+ * from a single-column query, before anything is loaded or serialized.
+ */
+public final class ResourceVersion {
+
+    /**
+     * Cache-Control for versioned responses: clients may keep a copy but must revalidate it
+     */
+    public static final String CACHE_CONTROL = "private, no-cache";
+
+    private final String eTag;
+    private final long lastModified;
+
+    private ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Version of a single row from its date_updated, which entities set from LocalDateTime.now()
+     * and so hold in the JVM's default zone
+     */
+    public static ResourceVersion of(LocalDateTime dateUpdated) {
+        Instant updated = toInstant(dateUpdated);
+        return new ResourceVersion(quote(Long.toHexString(epochMicros(updated))), updated.toEpochMilli());
+    }
+
+    /**
+     * Version of a collection: its size plus the latest date_updated, so creates, updates
+     * and deletes all produce a new ETag. lastUpdated is null for an empty collection.
+     */
+    public static ResourceVersion ofCollection(long count, LocalDateTime lastUpdated) {
+        if (lastUpdated == null) {
+            return new ResourceVersion(quote(Long.toHexString(count) + "-0"), -1);
+        }
+        Instant updated = toInstant(lastUpdated);
+        return new ResourceVersion(quote(Long.toHexString(count) + "-" + Long.toHexString(epochMicros(updated))),
+                updated.toEpochMilli());
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static long epochMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * Quoted strong ETag
+     */
+    public String getETag() { return eTag; }
+
+    /**
+     * Epoch milliseconds for Last-Modified, or -1 if unknown
+     */
+    public long getLastModified() { return lastModified; }
+}
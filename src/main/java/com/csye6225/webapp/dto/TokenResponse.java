@@ -0,0 +1,28 @@
+package com.csye6225.webapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Bearer token issued by POST /v1/token
+ */
+public class TokenResponse {
+
+    @JsonProperty("access_token")
+    private final String accessToken;
+
+    @JsonProperty("token_type")
+    private final String tokenType = "Bearer";
+
+    // Lifetime in seconds
+    @JsonProperty("expires_in")
+    private final long expiresIn;
+
+    public TokenResponse(String accessToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+    }
+
+    public String getAccessToken() { return accessToken; }
+    public String getTokenType() { return tokenType; }
+    public long getExpiresIn() { return expiresIn; }
+}
@@ -17,7 +17,10 @@ public class HealthCheck {
     
     @PrePersist
     protected void onCreate() {
-        checkDatetime = LocalDateTime.now();
+        // Batched audit rows carry the probe time rather than the flush time
+        if (checkDatetime == null) {
+            checkDatetime = LocalDateTime.now();
+        }
     }
     
     // Getters and Setters
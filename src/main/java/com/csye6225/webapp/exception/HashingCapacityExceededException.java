@@ -0,0 +1,16 @@
+package com.csye6225.webapp.exception;
+
+/**
+ * Thrown when the password-hashing concurrency limit (or the background re-hash queue) is full; mapped to 429
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+
+    public HashingCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
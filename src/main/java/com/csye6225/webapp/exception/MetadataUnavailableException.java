@@ -1,6 +1,8 @@
 package com.csye6225.webapp.exception;
 
 public class MetadataUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
     public MetadataUnavailableException(String message) {
         super(message);
     }
@@ -0,0 +1,12 @@
+package com.csye6225.webapp.exception;
+
+/**
+ * Thrown when every S3 part buffer is in use and an async upload cannot start; mapped to 503
+ */
+public class UploadCapacityExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UploadCapacityExceededException(String message) {
+        super(message);
+    }
+}
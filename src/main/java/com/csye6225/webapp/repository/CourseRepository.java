@@ -1,14 +1,73 @@
 package com.csye6225.webapp.repository;
 
+import com.csye6225.webapp.dto.CourseResponse;
 import com.csye6225.webapp.entity.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, UUID> {
+
+    // Constructor projection: rows go straight into CourseResponse without managed Course entities
+    String COURSE_RESPONSE_PROJECTION = "SELECT new com.csye6225.webapp.dto.CourseResponse("
+            + "c.id, c.departmentCode, c.number, c.title, c.creditHours, c.classification, "
+            + "c.description, c.prerequisites, c.hasSyllabus, c.dateCreated, c.dateUpdated) "
+            + "FROM Course c ";
+
     boolean existsByDepartmentCodeAndNumber(String departmentCode, String number);
-    List<Course> findAllByOrderByDepartmentCodeAscNumberAsc();
+
+    /**
+     * "department_code number" keys of existing courses among the given codes and numbers.
+     * Matches the cross product, so callers compare exact pairs against the result.
+     */
+    @Query("SELECT CONCAT(c.departmentCode, ' ', c.number) FROM Course c "
+            + "WHERE c.departmentCode IN :departmentCodes AND c.number IN :numbers")
+    List<String> findExistingKeys(@Param("departmentCodes") Collection<String> departmentCodes,
+                                  @Param("numbers") Collection<String> numbers);
+
+    @Query("SELECT COUNT(c) AS count, MAX(c.dateUpdated) AS lastUpdated FROM Course c")
+    CatalogVersion findCatalogVersion();
+
+    @Query(COURSE_RESPONSE_PROJECTION + "WHERE c.id = :id")
+    Optional<CourseResponse> findResponseById(@Param("id") UUID id);
+
+    @Query(COURSE_RESPONSE_PROJECTION + "ORDER BY c.departmentCode ASC, c.number ASC")
+    List<CourseResponse> findAllResponses();
+
+    @Query(COURSE_RESPONSE_PROJECTION + "ORDER BY c.departmentCode ASC, c.number ASC")
+    List<CourseResponse> findAllResponses(Limit limit);
+
+    /**
+     * Keyset page over (department_code, number), optionally filtered.
+     * A null afterDepartmentCode starts from the beginning of the catalog.
+     */
+    @Query(COURSE_RESPONSE_PROJECTION
+            + "WHERE (:departmentCode IS NULL OR c.departmentCode = :departmentCode) "
+            + "AND (:classification IS NULL OR c.classification = :classification) "
+            + "AND (:afterDepartmentCode IS NULL OR c.departmentCode > :afterDepartmentCode "
+            + "OR (c.departmentCode = :afterDepartmentCode AND c.number > :afterNumber)) "
+            + "ORDER BY c.departmentCode ASC, c.number ASC")
+    Stream<CourseResponse> streamResponsePage(@Param("departmentCode") String departmentCode,
+                                              @Param("classification") String classification,
+                                              @Param("afterDepartmentCode") String afterDepartmentCode,
+                                              @Param("afterNumber") String afterNumber,
+                                              Limit limit);
+
+    /**
+     * Size and latest modification of the whole catalog
+     */
+    interface CatalogVersion {
+        long getCount();
+        LocalDateTime getLastUpdated();
+    }
 }
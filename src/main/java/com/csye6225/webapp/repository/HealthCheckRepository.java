@@ -2,8 +2,19 @@ package com.csye6225.webapp.repository;
 
 import com.csye6225.webapp.entity.HealthCheck;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface HealthCheckRepository extends JpaRepository<HealthCheck, Long> {
-}
\ No newline at end of file
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM HealthCheck h WHERE h.checkDatetime < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
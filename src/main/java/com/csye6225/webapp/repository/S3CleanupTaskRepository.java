@@ -0,0 +1,29 @@
+package com.csye6225.webapp.repository;
+
+import com.csye6225.webapp.entity.S3CleanupTask;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface S3CleanupTaskRepository extends JpaRepository<S3CleanupTask, UUID> {
+    List<S3CleanupTask> findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(LocalDateTime now, Limit limit);
+
+    /**
+     * Bump the attempt count and push the next attempt out; a no-op if another node already finished the task
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE S3CleanupTask t SET t.attempts = t.attempts + 1, t.lastError = :error, "
+            + "t.nextAttemptAt = :nextAttemptAt WHERE t.id = :id")
+    int recordFailure(@Param("id") UUID id, @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
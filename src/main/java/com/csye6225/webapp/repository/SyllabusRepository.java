@@ -2,8 +2,11 @@ package com.csye6225.webapp.repository;
 
 import com.csye6225.webapp.entity.Syllabus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,5 +14,8 @@ import java.util.UUID;
 public interface SyllabusRepository extends JpaRepository<Syllabus, UUID> {
     Optional<Syllabus> findByCourseId(String courseId);
     boolean existsByCourseId(String courseId);
+
+    @Query("SELECT s.dateUpdated FROM Syllabus s WHERE s.courseId = :courseId")
+    Optional<LocalDateTime> findDateUpdatedByCourseId(@Param("courseId") String courseId);
     void deleteByCourseId(String courseId);
 }
@@ -2,7 +2,11 @@ package com.csye6225.webapp.repository;
 
 import com.csye6225.webapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -11,4 +15,13 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    /**
+     * Replace the password hash only if it is still the expected one; leaves account_updated alone
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.username = :username AND u.password = :currentHash")
+    int updatePasswordIfUnchanged(@Param("username") String username, @Param("currentHash") String currentHash,
+                                  @Param("newHash") String newHash);
 }
\ No newline at end of file
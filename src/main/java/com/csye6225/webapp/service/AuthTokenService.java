@@ -0,0 +1,98 @@
+package com.csye6225.webapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Short-lived bearer tokens signed with HMAC-SHA256 and verified locally, with no DB or hash lookup.
+ * A token is "base64url(username).expiry-epoch-seconds.base64url(mac)". Tokens are not revocable:
+ * a password change takes effect for them when they expire, so keep the TTL short.
+ * Every instance must share auth.token.secret; without one a random per-process key is used.
+ */
+@Component
+public class AuthTokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final char SEPARATOR = '.';
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public AuthTokenService(@Value("${auth.token.secret:}") String secret,
+                            @Value("${auth.token.ttl:PT15M}") Duration ttl) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            keyBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+            if (keyBytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("auth.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Sign a token for an authenticated user, valid for the configured TTL
+     */
+    public String issue(String username) {
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + SEPARATOR + Instant.now().plus(ttl).getEpochSecond();
+        return payload + SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(payload));
+    }
+
+    /**
+     * Username of a well-formed, correctly signed and unexpired token; empty otherwise
+     */
+    public Optional<String> verify(String token) {
+        int macStart = token.lastIndexOf(SEPARATOR);
+        int expiryStart = macStart > 0 ? token.lastIndexOf(SEPARATOR, macStart - 1) : -1;
+        if (expiryStart <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, macStart);
+        try {
+            byte[] presented = Base64.getUrlDecoder().decode(token.substring(macStart + 1));
+            if (!MessageDigest.isEqual(presented, mac(payload))) {
+                return Optional.empty();
+            }
+            long expiry = Long.parseLong(payload.substring(expiryStart + 1));
+            if (Instant.now().getEpochSecond() >= expiry) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(Base64.getUrlDecoder().decode(payload.substring(0, expiryStart)),
+                    StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // Bad Base64 or expiry
+            return Optional.empty();
+        }
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private byte[] mac(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+}
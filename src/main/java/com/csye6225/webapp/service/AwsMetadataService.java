@@ -1,148 +1,117 @@
 package com.csye6225.webapp.service;
 
-import com.csye6225.webapp.exception.MetadataUnavailableException;
 import com.csye6225.webapp.model.MetadataResponse;
 import com.csye6225.webapp.model.NetworkInterface;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-public class AwsMetadataService implements MetadataService {
-    
-    private static final String METADATA_BASE = "http://169.254.169.254/latest/meta-data/";
-    private static final String TOKEN_URL = "http://169.254.169.254/latest/api/token";
-    private static final int TIMEOUT_MS = 2000;
+public class AwsMetadataService extends CachedMetadataService {
+
     private static final int TOKEN_TTL_SECONDS = 21600; // 6 hours (AWS max)
-    
-    private String cachedToken = null;
-    private long tokenExpiryTime = 0;
-    
+
+    @Value("${metadata.aws.base-url:http://169.254.169.254/latest/}")
+    private String baseUrl;
+
+    private final AtomicReference<Token> cachedToken = new AtomicReference<>();
+
     @Override
-    public MetadataResponse getMetadata() {
-        try {
-            String token = getIMDSv2Token();
-            
-            String instanceId = fetchMetadata("instance-id", token);
-            String availabilityZone = fetchMetadata("placement/availability-zone", token);
-            String instanceType = fetchMetadata("instance-type", token);
-            
-            // Extract region from AZ (e.g., us-east-1a -> us-east-1)
-            String region = availabilityZone.substring(0, availabilityZone.length() - 1);
-            
-            // Get network interfaces
-            List<NetworkInterface> interfaces = getNetworkInterfaces(token);
-            
-            return new MetadataResponse("aws", instanceId, region, instanceType, interfaces);
-            
-        } catch (Exception e) {
-            // Invalidate cached token on failure so next call retries
-            cachedToken = null;
-            tokenExpiryTime = 0;
-            throw new MetadataUnavailableException("Failed to retrieve AWS metadata", e);
-        }
+    protected CompletableFuture<MetadataResponse> loadMetadata() {
+        return getIMDSv2Token()
+                .thenCompose(token -> {
+                    CompletableFuture<String> instanceId = fetchMetadata("instance-id", token);
+                    CompletableFuture<String> availabilityZone = fetchMetadata("placement/availability-zone", token);
+                    CompletableFuture<String> instanceType = fetchMetadata("instance-type", token);
+                    CompletableFuture<List<NetworkInterface>> interfaces = getNetworkInterfaces(token);
+                    
+                    return CompletableFuture.allOf(instanceId, availabilityZone, instanceType, interfaces)
+                            .thenApply(ignored -> {
+                                // Extract region from AZ (e.g., us-east-1a -> us-east-1)
+                                String az = availabilityZone.join();
+                                String region = az.substring(0, az.length() - 1);
+                                return new MetadataResponse("aws", instanceId.join(), region,
+                                        instanceType.join(), interfaces.join());
+                            });
+                })
+                // Invalidate cached token on failure so next call retries
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        cachedToken.set(null);
+                    }
+                });
     }
-    
-    private String getIMDSv2Token() throws Exception {
-        long now = System.currentTimeMillis();
-        if (cachedToken != null && now < tokenExpiryTime) {
-            return cachedToken;
-        }
-        
-        URL url = new URL(TOKEN_URL);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("PUT");
-        conn.setConnectTimeout(TIMEOUT_MS);
-        conn.setReadTimeout(TIMEOUT_MS);
-        conn.setRequestProperty("X-aws-ec2-metadata-token-ttl-seconds", String.valueOf(TOKEN_TTL_SECONDS));
-        conn.setDoOutput(true);
-        
-        int responseCode = conn.getResponseCode();
-        if (responseCode != 200) {
-            throw new Exception("Failed to get IMDSv2 token: " + responseCode);
-        }
-        
-        BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        String token = reader.readLine();
-        reader.close();
-        conn.disconnect();
-        
-        if (token == null) {
-            throw new Exception("Token response was empty");
-        }
-        
-        cachedToken = token.trim();
-        // Expire 5 minutes early to avoid edge cases
-        tokenExpiryTime = System.currentTimeMillis() + ((TOKEN_TTL_SECONDS - 300) * 1000L);
-        return cachedToken;
+
+    @Override
+    protected String platform() {
+        return "aws";
     }
-    
-    private List<NetworkInterface> getNetworkInterfaces(String token) throws Exception {
-        List<NetworkInterface> interfaces = new ArrayList<>();
-        
-        // Get MAC addresses
-        String macsData = fetchMetadata("network/interfaces/macs/", token);
-        String[] macs = macsData.trim().split("\n");
-        
-        for (String mac : macs) {
-            mac = mac.trim();
-            if (mac.isEmpty()) continue;
-            
-            String privateIp = fetchMetadata("network/interfaces/macs/" + mac + "local-ipv4s", token);
-            String publicIp = null;
-            String vpcId = null;
-            
-            try {
-                publicIp = fetchMetadata("network/interfaces/macs/" + mac + "public-ipv4s", token);
-            } catch (Exception e) {
-                // Public IP may not exist
-            }
-            
-            try {
-                vpcId = fetchMetadata("network/interfaces/macs/" + mac + "vpc-id", token);
-            } catch (Exception e) {
-                // VPC ID may not exist
-            }
-            
-            interfaces.add(new NetworkInterface(privateIp, publicIp, vpcId));
+
+    @Override
+    protected String failureMessage() {
+        return "Failed to retrieve AWS metadata";
+    }
+
+    private CompletableFuture<String> getIMDSv2Token() {
+        Token token = cachedToken.get();
+        if (token != null && System.currentTimeMillis() < token.expiresAt()) {
+            return CompletableFuture.completedFuture(token.value());
         }
         
-        return interfaces;
+        HttpRequest request = request(baseUrl + "api/token")
+                .header("X-aws-ec2-metadata-token-ttl-seconds", String.valueOf(TOKEN_TTL_SECONDS))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return fetch(request).thenApply(value -> {
+            if (value.isEmpty()) {
+                throw new CompletionException(new IOException("Token response was empty"));
+            }
+            // Expire 5 minutes early to avoid edge cases
+            cachedToken.set(new Token(value, System.currentTimeMillis() + ((TOKEN_TTL_SECONDS - 300) * 1000L)));
+            return value;
+        });
+    }
+
+    private CompletableFuture<List<NetworkInterface>> getNetworkInterfaces(String token) {
+        // Get MAC addresses, then every interface's fields at once
+        return fetchMetadata("network/interfaces/macs/", token)
+                .thenCompose(macsData -> allOf(Arrays.stream(macsData.split("\n"))
+                        .map(String::trim)
+                        .filter(mac -> !mac.isEmpty())
+                        .map(mac -> getNetworkInterface(mac, token))
+                        .toList()));
     }
-    
-    private String fetchMetadata(String path, String token) throws Exception {
-        URL url = new URL(METADATA_BASE + path);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(TIMEOUT_MS);
-        conn.setReadTimeout(TIMEOUT_MS);
+
+    private CompletableFuture<NetworkInterface> getNetworkInterface(String mac, String token) {
+        String prefix = "network/interfaces/macs/" + mac;
+        CompletableFuture<String> privateIp = fetchMetadata(prefix + "local-ipv4s", token);
+        // Public IP and VPC ID may not exist
+        CompletableFuture<String> publicIp = fetchOptional(metadataRequest(prefix + "public-ipv4s", token));
+        CompletableFuture<String> vpcId = fetchOptional(metadataRequest(prefix + "vpc-id", token));
         
+        return CompletableFuture.allOf(privateIp, publicIp, vpcId)
+                .thenApply(ignored -> new NetworkInterface(privateIp.join(), publicIp.join(), vpcId.join()));
+    }
+
+    private CompletableFuture<String> fetchMetadata(String path, String token) {
+        return fetch(metadataRequest(path, token));
+    }
+
+    private HttpRequest metadataRequest(String path, String token) {
         // Add IMDSv2 token header
-        if (token != null && !token.isEmpty()) {
-            conn.setRequestProperty("X-aws-ec2-metadata-token", token);
-        }
-        
-        int responseCode = conn.getResponseCode();
-        if (responseCode != 200) {
-            throw new Exception("Failed to fetch metadata: " + path + " (HTTP " + responseCode + ")");
-        }
-        
-        BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
-        
-        while ((line = reader.readLine()) != null) {
-            response.append(line).append("\n");
-        }
-        
-        reader.close();
-        conn.disconnect();
-        
-        return response.toString().trim();
+        return request(baseUrl + "meta-data/" + path)
+                .header("X-aws-ec2-metadata-token", token)
+                .GET()
+                .build();
+    }
+
+    private record Token(String value, long expiresAt) {
     }
 }
@@ -0,0 +1,160 @@
+package com.csye6225.webapp.service;
+
+import com.csye6225.webapp.entity.CacheInvalidation;
+import com.csye6225.webapp.repository.CacheInvalidationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Cross-instance cache invalidation through a change-log table, with no broker.
+ * A cache publishes (cache, key) in the transaction that changes the data, so the row commits or
+ * rolls back with it. Every node polls for rows above the highest id it has seen and evicts the
+ * key locally; peers therefore see a write within one poll interval.
+ * Auto-increment ids can commit out of order, so ids skipped by a poll are re-checked until
+ * gap-timeout (a rolled-back insert never shows up). At most max-gaps ids are awaited: a larger
+ * jump (failed bulk insert, changed auto_increment_increment) evicts every subscribed cache instead.
+ * Old rows are purged after the retention.
+ * The poll runs on its own thread so a slow S3 sweep or audit flush on Boot's shared
+ * scheduler cannot delay invalidations.
+ */
+@Component
+public class CacheInvalidationLog {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    // Ids above which no row has been read yet, and skipped ids (-> first noticed, nanoTime) still awaited
+    private long highestSeen;
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    private final ThreadPoolTaskScheduler poller = new ThreadPoolTaskScheduler();
+
+    @Autowired
+    private CacheInvalidationRepository repository;
+
+    @Value("${cache.invalidation.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    @Value("${cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cache.invalidation.gap-timeout:PT30S}")
+    private Duration gapTimeout;
+
+    @Value("${cache.invalidation.max-gaps:10000}")
+    private int maxGaps;
+
+    @Value("${cache.invalidation.retention:PT1H}")
+    private Duration retention;
+
+    /**
+     * Start after the current end of the log: this node's caches are still empty
+     */
+    @PostConstruct
+    void init() {
+        highestSeen = repository.findMaxId();
+        poller.setPoolSize(1);
+        poller.setThreadNamePrefix("cache-invalidation-");
+        poller.setDaemon(true);
+        poller.initialize();
+        poller.scheduleWithFixedDelay(this::poll, Instant.now().plus(pollInterval), pollInterval);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdown();
+    }
+
+    /**
+     * Evict locally when a peer publishes a key for this cache; evictAll is used when
+     * skipped rows can no longer be tracked and any key may be stale
+     */
+    public void subscribe(String cache, Consumer<String> eviction, Runnable evictAll) {
+        subscribers.put(cache, new Subscriber(eviction, evictAll));
+    }
+
+    /**
+     * Record that a key changed. Call inside the transaction making the change; the caller
+     * evicts its own copy, peers do so when they poll the committed row.
+     */
+    public void publish(String cache, String key) {
+        CacheInvalidation invalidation = new CacheInvalidation();
+        invalidation.setCacheName(cache);
+        invalidation.setCacheKey(key);
+        invalidation.setOrigin(nodeId);
+        repository.save(invalidation);
+    }
+
+    /**
+     * Apply rows committed since the last poll, including late commits that fill earlier gaps
+     */
+    public synchronized void poll() {
+        long now = System.nanoTime();
+
+        if (!gaps.isEmpty()) {
+            for (CacheInvalidation invalidation : repository.findAllById(new ArrayList<>(gaps.keySet()))) {
+                gaps.remove(invalidation.getId());
+                apply(invalidation);
+            }
+        }
+
+        List<CacheInvalidation> batch;
+        do {
+            batch = repository.findByIdGreaterThanOrderByIdAsc(highestSeen, Limit.of(batchSize));
+            for (CacheInvalidation invalidation : batch) {
+                long skippedIds = invalidation.getId() - highestSeen - 1;
+                if (gaps.size() + skippedIds > maxGaps) {
+                    // Too many ids to await one by one: drop them and everything they might have evicted
+                    gaps.clear();
+                    subscribers.values().forEach(subscriber -> subscriber.evictAll().run());
+                } else {
+                    for (long skipped = highestSeen + 1; skipped < invalidation.getId(); skipped++) {
+                        gaps.put(skipped, now);
+                    }
+                }
+                highestSeen = invalidation.getId();
+                apply(invalidation);
+            }
+        } while (batch.size() == batchSize);
+
+        gaps.values().removeIf(since -> now - since > gapTimeout.toNanos());
+    }
+
+    /**
+     * Drop rows every node has had ample time to read
+     */
+    @Scheduled(fixedDelayString = "${cache.invalidation.purge-interval:PT10M}")
+    public void purge() {
+        repository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        Subscriber subscriber = subscribers.get(invalidation.getCacheName());
+        if (subscriber != null) {
+            subscriber.eviction().accept(invalidation.getCacheKey());
+        }
+    }
+
+    private record Subscriber(Consumer<String> eviction, Runnable evictAll) {
+    }
+}
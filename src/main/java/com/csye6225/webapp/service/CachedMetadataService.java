@@ -0,0 +1,127 @@
+package com.csye6225.webapp.service;
+
+import com.csye6225.webapp.exception.MetadataUnavailableException;
+import com.csye6225.webapp.model.MetadataResponse;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Base for the cloud metadata services.
+ * Instance metadata hardly ever changes, so the assembled response is cached: after
+ * metadata.cache.refresh-after the next read still returns the cached value and triggers
+ * a background reload; a failed reload keeps serving the old value until expire-after.
+ */
+public abstract class CachedMetadataService implements MetadataService {
+
+    private static final String CACHE_KEY = "instance";
+
+    @Autowired
+    @Qualifier("metadataHttpClient")
+    private HttpClient httpClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${metadata.request-timeout:PT2S}")
+    private Duration requestTimeout;
+
+    @Value("${metadata.cache.refresh-after:PT5M}")
+    private Duration refreshAfter;
+
+    @Value("${metadata.cache.expire-after:PT1H}")
+    private Duration expireAfter;
+
+    private AsyncLoadingCache<String, MetadataResponse> cache;
+    private OutcomeTimers fetchTimers;
+
+    @PostConstruct
+    void initCache() {
+        fetchTimers = OutcomeTimers.register(meterRegistry, "metadata.fetch",
+                "Full instance-metadata fetches from the cloud metadata endpoint", "platform", platform());
+        cache = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .buildAsync((key, executor) -> timedLoad());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "metadata." + platform());
+    }
+
+    private CompletableFuture<MetadataResponse> timedLoad() {
+        long start = System.nanoTime();
+        return loadMetadata().whenComplete((response, error) -> fetchTimers.record(start, error == null));
+    }
+
+    @Override
+    public MetadataResponse getMetadata() {
+        try {
+            return cache.get(CACHE_KEY).join();
+        } catch (CompletionException e) {
+            throw new MetadataUnavailableException(failureMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Fetch every field from the metadata endpoint, issuing independent requests concurrently
+     */
+    protected abstract CompletableFuture<MetadataResponse> loadMetadata();
+
+    /**
+     * Platform name used in metric tags ("aws", "gcp")
+     */
+    protected abstract String platform();
+
+    /**
+     * Message for the MetadataUnavailableException thrown when no metadata can be served
+     */
+    protected abstract String failureMessage();
+
+    protected HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(requestTimeout);
+    }
+
+    /**
+     * Send a request and return the trimmed body; fails unless the response is 200
+     */
+    protected CompletableFuture<String> fetch(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new CompletionException(new IOException(
+                                "Failed to fetch metadata: " + request.uri().getPath()
+                                        + " (HTTP " + response.statusCode() + ")"));
+                    }
+                    return response.body().trim();
+                });
+    }
+
+    /**
+     * Like {@link #fetch} but yields null for fields that may not exist (e.g. a public IP)
+     */
+    protected CompletableFuture<String> fetchOptional(HttpRequest request) {
+        return fetch(request).exceptionally(e -> null);
+    }
+
+    /**
+     * Wait for all futures and collect their results in order
+     */
+    protected static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+}
@@ -1,137 +1,148 @@
 package com.csye6225.webapp.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import java.net.HttpURLConnection;
-import java.net.URL;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 public class CloudPlatformDetector {
     
-    private static final String AWS_METADATA_URL = "http://169.254.169.254/latest/meta-data/";
-    private static final String AWS_TOKEN_URL = "http://169.254.169.254/latest/api/token";
-    private static final String GCP_METADATA_URL = "http://metadata.google.internal/computeMetadata/v1/";
-    private static final int TIMEOUT_MS = 2000; // 2 seconds
+    @Autowired
+    @Qualifier("metadataHttpClient")
+    private HttpClient httpClient;
+    
+    @Value("${metadata.aws.base-url:http://169.254.169.254/latest/}")
+    private String awsBaseUrl;
+    
+    @Value("${metadata.gcp.base-url:http://metadata.google.internal/computeMetadata/v1/}")
+    private String gcpBaseUrl;
+    
+    @Value("${metadata.request-timeout:PT2S}")
+    private Duration requestTimeout;
+    
+    // Off-cloud, probing again is retried after this delay, doubling up to the max
+    @Value("${metadata.detection.retry-backoff:PT1M}")
+    private Duration retryBackoff;
     
-    private String detectedPlatform = null;
+    @Value("${metadata.detection.max-retry-backoff:PT30M}")
+    private Duration maxRetryBackoff;
+    
+    // Current (possibly in-flight) detection; replaced only when a negative result has expired
+    private final AtomicReference<CompletableFuture<Detection>> detection = new AtomicReference<>();
     
     /**
-     * Detect cloud platform at startup (cached for application lifetime)
+     * Kick off detection at startup so the first /v1/metadata request doesn't pay for it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDetection() {
+        currentDetection();
+    }
+    
+    /**
+     * Detected cloud platform ("gcp", "aws") or null when not on a supported cloud.
+     * Callers arriving while detection is in flight wait for it rather than probing again.
      */
     public String detectPlatform() {
-        if (detectedPlatform != null) {
-            return detectedPlatform;
-        }
-        
-        // Try GCP first
-        if (isGcpMetadataAvailable()) {
-            detectedPlatform = "gcp";
-            return detectedPlatform;
-        }
-        
-        // Try AWS (with IMDSv2 support)
-        if (isAwsMetadataAvailable()) {
-            detectedPlatform = "aws";
-            return detectedPlatform;
-        }
-        
-        // No cloud platform detected
-        return null;
+        return currentDetection().join().platform();
     }
     
-    private boolean isGcpMetadataAvailable() {
-        try {
-            URL url = new URL(GCP_METADATA_URL);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(TIMEOUT_MS);
-            conn.setReadTimeout(TIMEOUT_MS);
-            conn.setRequestProperty("Metadata-Flavor", "Google");
-            
-            int responseCode = conn.getResponseCode();
-            conn.disconnect();
-            
-            return responseCode == 200;
-        } catch (Exception e) {
-            return false;
+    private CompletableFuture<Detection> currentDetection() {
+        while (true) {
+            CompletableFuture<Detection> current = detection.get();
+            if (current != null && !isExpired(current)) {
+                return current;
+            }
+            int failures = current == null ? 0 : current.join().failures();
+            CompletableFuture<Detection> next = new CompletableFuture<>();
+            if (detection.compareAndSet(current, next)) {
+                probe(failures).whenComplete((result, error) -> next.complete(result));
+                return next;
+            }
         }
     }
     
-    private boolean isAwsMetadataAvailable() {
-        try {
-            // Try to fetch IMDSv2 token first
-            String token = fetchIMDSv2Token();
-            
-            if (token != null) {
-                // Use token for metadata request
-                return testAwsMetadataWithToken(token);
-            } else {
-                // Fallback to IMDSv1 if token fetch fails
-                return testAwsMetadataWithoutToken();
-            }
-        } catch (Exception e) {
+    private boolean isExpired(CompletableFuture<Detection> future) {
+        if (!future.isDone()) {
             return false;
         }
+        Detection result = future.join();
+        return result.platform() == null && System.nanoTime() - result.retryAfterNanos() >= 0;
     }
     
-    private String fetchIMDSv2Token() {
-        try {
-            URL url = new URL(AWS_TOKEN_URL);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("PUT");
-            conn.setConnectTimeout(TIMEOUT_MS);
-            conn.setReadTimeout(TIMEOUT_MS);
-            conn.setRequestProperty("X-aws-ec2-metadata-token-ttl-seconds", "60");
-            conn.setDoOutput(true);
-            
-            int responseCode = conn.getResponseCode();
-            if (responseCode == 200) {
-                java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.InputStreamReader(conn.getInputStream())
-                );
-                String token = reader.readLine();
-                reader.close();
-                conn.disconnect();
-                return token != null ? token.trim() : null;
-            }
-            conn.disconnect();
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
+    /**
+     * Probe both platforms concurrently; GCP wins if both answer
+     */
+    private CompletableFuture<Detection> probe(int previousFailures) {
+        CompletableFuture<Boolean> aws = isAwsMetadataAvailable();
+        return isGcpMetadataAvailable()
+                .thenCompose(gcp -> gcp
+                        ? CompletableFuture.completedFuture("gcp")
+                        : aws.thenApply(available -> available ? "aws" : null))
+                .exceptionally(e -> null)
+                .thenApply(platform -> {
+                    if (platform != null) {
+                        return new Detection(platform, 0, 0);
+                    }
+                    int failures = previousFailures + 1;
+                    Duration delay = retryBackoff.multipliedBy(1L << Math.min(failures - 1, 16));
+                    if (delay.compareTo(maxRetryBackoff) > 0) {
+                        delay = maxRetryBackoff;
+                    }
+                    return new Detection(null, failures, System.nanoTime() + delay.toNanos());
+                });
     }
     
-    private boolean testAwsMetadataWithToken(String token) {
-        try {
-            URL url = new URL(AWS_METADATA_URL + "instance-id");
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(TIMEOUT_MS);
-            conn.setReadTimeout(TIMEOUT_MS);
-            conn.setRequestProperty("X-aws-ec2-metadata-token", token);
-            
-            int responseCode = conn.getResponseCode();
-            conn.disconnect();
-            
-            return responseCode == 200;
-        } catch (Exception e) {
-            return false;
-        }
+    private CompletableFuture<Boolean> isGcpMetadataAvailable() {
+        HttpRequest request = request(gcpBaseUrl)
+                .header("Metadata-Flavor", "Google")
+                .GET()
+                .build();
+        return isOk(request);
     }
     
-    private boolean testAwsMetadataWithoutToken() {
-        try {
-            URL url = new URL(AWS_METADATA_URL + "instance-id");
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(TIMEOUT_MS);
-            conn.setReadTimeout(TIMEOUT_MS);
-            
-            int responseCode = conn.getResponseCode();
-            conn.disconnect();
-            
-            return responseCode == 200;
-        } catch (Exception e) {
-            return false;
-        }
+    private CompletableFuture<Boolean> isAwsMetadataAvailable() {
+        // Try to fetch IMDSv2 token first
+        HttpRequest tokenRequest = request(awsBaseUrl + "api/token")
+                .header("X-aws-ec2-metadata-token-ttl-seconds", "60")
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.sendAsync(tokenRequest, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> response.statusCode() == 200 ? response.body().trim() : null)
+                .exceptionally(e -> null)
+                .thenCompose(token -> {
+                    HttpRequest.Builder request = request(awsBaseUrl + "meta-data/instance-id").GET();
+                    // Use token for metadata request; fall back to IMDSv1 if token fetch failed
+                    if (token != null && !token.isEmpty()) {
+                        request.header("X-aws-ec2-metadata-token", token);
+                    }
+                    return isOk(request.build());
+                });
+    }
+    
+    private CompletableFuture<Boolean> isOk(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() == 200)
+                .exceptionally(e -> false);
+    }
+    
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(requestTimeout);
+    }
+    
+    /**
+     * Outcome of one detection round; a null platform is retried once retryAfterNanos has passed
+     */
+    private record Detection(String platform, int failures, long retryAfterNanos) {
     }
 }
@@ -0,0 +1,149 @@
+package com.csye6225.webapp.service;
+
+import com.csye6225.webapp.dto.CourseResponse;
+import com.csye6225.webapp.dto.ResourceVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of course responses: one entry per course plus the full ordered catalog.
+ * Writers invalidate after their transaction commits; a load racing with a write cannot
+ * re-insert the old value, because invalidating a key waits for an in-flight load of it.
+ * Invalidations are also published to CacheInvalidationLog, so peers evict within a poll interval.
+ * Cached responses are shared between requests and must not be mutated.
+ */
+@Component
+public class CourseCatalogCache implements MeterBinder {
+
+    private static final String CATALOG_KEY = "all";
+    private static final String COURSE_CACHE = "course.by_id";
+    private static final String CATALOG_CACHE = "course.catalog";
+
+    private final Cache<UUID, CourseResponse> courses;
+    private final Cache<String, Catalog> catalog;
+    private final int maxCatalogSize;
+    private final CacheInvalidationLog invalidationLog;
+
+    public CourseCatalogCache(CacheInvalidationLog invalidationLog,
+                              @Value("${courses.cache.max-entries:10000}") long maxEntries,
+                              @Value("${courses.cache.max-catalog-size:5000}") int maxCatalogSize,
+                              @Value("${courses.cache.ttl:PT10M}") Duration ttl) {
+        this.invalidationLog = invalidationLog;
+        this.maxCatalogSize = maxCatalogSize;
+        this.courses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.catalog = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        invalidationLog.subscribe(COURSE_CACHE, courseId -> evict(UUID.fromString(courseId)), () -> {
+            courses.invalidateAll();
+            catalog.invalidateAll();
+        });
+        invalidationLog.subscribe(CATALOG_CACHE, key -> catalog.invalidate(CATALOG_KEY), catalog::invalidateAll);
+    }
+
+    /**
+     * Cached course, falling back to the loader on a miss; missing courses are not cached
+     */
+    public Optional<CourseResponse> getCourse(UUID courseId, Function<UUID, Optional<CourseResponse>> loader) {
+        return Optional.ofNullable(courses.get(courseId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Cached catalog, falling back to the loader on a miss.
+     * The loader should return at most getMaxCatalogSize() + 1 courses in listing order;
+     * a larger catalog is remembered as too large (see {@link Catalog#isComplete()}).
+     */
+    public Catalog getCatalog(Supplier<List<CourseResponse>> loader) {
+        return catalog.get(CATALOG_KEY, key -> Catalog.of(loader.get(), maxCatalogSize));
+    }
+
+    public int getMaxCatalogSize() {
+        return maxCatalogSize;
+    }
+
+    /**
+     * Drop a course and the catalog once the current transaction commits (immediately if there is none)
+     */
+    public void invalidate(UUID courseId) {
+        invalidationLog.publish(COURSE_CACHE, courseId.toString());
+        afterCommit(() -> evict(courseId));
+    }
+
+    /**
+     * Drop the catalog once the current transaction commits (new courses)
+     */
+    public void invalidateCatalog() {
+        invalidationLog.publish(CATALOG_CACHE, CATALOG_KEY);
+        afterCommit(() -> catalog.invalidate(CATALOG_KEY));
+    }
+
+    private void evict(UUID courseId) {
+        courses.invalidate(courseId);
+        catalog.invalidate(CATALOG_KEY);
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    /**
+     * Hit/miss/size meters for both levels, as cache=course.by_id and cache=course.catalog
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, courses, COURSE_CACHE);
+        CaffeineCacheMetrics.monitor(registry, catalog, CATALOG_CACHE);
+    }
+
+    /**
+     * The full ordered catalog with its aggregate version, or an incomplete marker
+     * (null courses and version) when it has more than the configured maximum
+     */
+    public record Catalog(List<CourseResponse> courses, ResourceVersion version) {
+
+        static Catalog of(List<CourseResponse> loaded, int maxSize) {
+            if (loaded.size() > maxSize) {
+                return new Catalog(null, null);
+            }
+            LocalDateTime lastUpdated = loaded.stream()
+                    .map(CourseResponse::getDateUpdated)
+                    .max(LocalDateTime::compareTo)
+                    .orElse(null);
+            return new Catalog(List.copyOf(loaded), ResourceVersion.ofCollection(loaded.size(), lastUpdated));
+        }
+
+        public boolean isComplete() {
+            return courses != null;
+        }
+    }
+}
@@ -1,18 +1,35 @@
 package com.csye6225.webapp.service;
 
 import com.csye6225.webapp.dto.CourseCreateRequest;
+import com.csye6225.webapp.dto.CourseCursor;
+import com.csye6225.webapp.dto.CourseImportResult;
 import com.csye6225.webapp.dto.CourseResponse;
 import com.csye6225.webapp.dto.CourseUpdateRequest;
+import com.csye6225.webapp.dto.ResourceVersion;
 import com.csye6225.webapp.entity.Course;
 import com.csye6225.webapp.repository.CourseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CourseService {
@@ -20,6 +37,27 @@ public class CourseService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CourseCatalogCache courseCatalogCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Catalog reads that miss the cache; hits never open a transaction or borrow a connection
+    private TransactionTemplate readOnlyTransaction;
+
+    @Value("${courses.import.jdbc-batch-size:100}")
+    private int importBatchSize;
+
+    @PostConstruct
+    void initReadOnlyTransaction() {
+        readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+    }
+
     /**
      * Create a new course
      */
@@ -27,49 +65,190 @@ public class CourseService {
     public CourseResponse createCourse(CourseCreateRequest request) {
         // Check for duplicate department_code + number
         if (courseRepository.existsByDepartmentCodeAndNumber(request.getDepartmentCode(), request.getNumber())) {
-            throw new IllegalArgumentException("A course with department_code '" + request.getDepartmentCode()
-                    + "' and number '" + request.getNumber() + "' already exists");
+            throw new IllegalArgumentException(duplicateMessage(request));
         }
 
-        // Map request to entity
-        Course course = new Course();
-        course.setDepartmentCode(request.getDepartmentCode());
-        course.setNumber(request.getNumber());
-        course.setTitle(request.getTitle());
-        course.setCreditHours(request.getCreditHours());
-        course.setClassification(request.getClassification());
-        course.setDescription(request.getDescription());
-        course.setPrerequisites(request.getPrerequisites());
-
         // Save course
-        Course savedCourse = courseRepository.save(course);
+        Course savedCourse = courseRepository.save(toEntity(request));
+        courseCatalogCache.invalidateCatalog();
 
         // Return response
         return mapToResponse(savedCourse);
     }
 
+    /**
+     * Import one chunk of validated course requests, keyed by their position in the import.
+     * Duplicates (existing or earlier in the chunk) are found with a single query, and the rest
+     * are inserted as JDBC batches in one transaction. If a concurrent create wins a key between
+     * the check and the insert, the chunk is rolled back and retried row by row.
+     *
+     * @return one result per row, in key order
+     */
+    public List<CourseImportResult> importCourses(Map<Integer, CourseCreateRequest> rows) {
+        try {
+            return transactionTemplate.execute(status -> insertChunk(rows));
+        } catch (DataIntegrityViolationException e) {
+            List<CourseImportResult> results = new ArrayList<>(rows.size());
+            rows.forEach((index, request) -> results.add(importOne(index, request)));
+            return results;
+        }
+    }
+
+    private List<CourseImportResult> insertChunk(Map<Integer, CourseCreateRequest> rows) {
+        Set<String> departmentCodes = new HashSet<>();
+        Set<String> numbers = new HashSet<>();
+        rows.values().forEach(request -> {
+            departmentCodes.add(request.getDepartmentCode());
+            numbers.add(request.getNumber());
+        });
+        Set<String> takenKeys = new HashSet<>(courseRepository.findExistingKeys(departmentCodes, numbers));
+
+        // One entry per row: the entity to insert, or null for a duplicate
+        List<Course> courses = new ArrayList<>(rows.size());
+        for (CourseCreateRequest request : rows.values()) {
+            boolean isNew = takenKeys.add(request.getDepartmentCode() + " " + request.getNumber());
+            courses.add(isNew ? toEntity(request) : null);
+        }
+
+        entityManager.unwrap(Session.class).setJdbcBatchSize(importBatchSize);
+        courseRepository.saveAll(courses.stream().filter(course -> course != null).toList());
+        courseRepository.flush();
+        courseCatalogCache.invalidateCatalog();
+
+        List<CourseImportResult> results = new ArrayList<>(rows.size());
+        int position = 0;
+        for (Map.Entry<Integer, CourseCreateRequest> row : rows.entrySet()) {
+            Course course = courses.get(position++);
+            results.add(course != null
+                    ? CourseImportResult.created(row.getKey(), mapToResponse(course))
+                    : CourseImportResult.conflict(row.getKey(), duplicateMessage(row.getValue())));
+        }
+        return results;
+    }
+
+    private CourseImportResult importOne(int index, CourseCreateRequest request) {
+        try {
+            return CourseImportResult.created(index, transactionTemplate.execute(status -> createCourse(request)));
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            return CourseImportResult.conflict(index, duplicateMessage(request));
+        }
+    }
+
     /**
      * Get all courses ordered by department_code and number
+     * Served from CourseCatalogCache; on a miss it is a read-only projection, so no entities
+     * are hydrated and nothing is dirty-checked or flushed.
      */
     public List<CourseResponse> getAllCourses() {
-        return courseRepository.findAllByOrderByDepartmentCodeAscNumberAsc()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        CourseCatalogCache.Catalog catalog = getCatalog();
+        return catalog.isComplete() ? catalog.courses() : courseRepository.findAllResponses();
+    }
+
+    /**
+     * Stream one keyset page of courses to the sink, one row at a time.
+     * Served from the cached catalog when it fits in the cache; otherwise reads limit + 1 rows
+     * so the caller learns whether another page exists without a separate count query.
+     *
+     * @param limit page size, or null to stream every matching course
+     * @return cursor for the next page, or null if this was the last page
+     */
+    public CourseCursor streamCourses(String departmentCode, String classification, CourseCursor after,
+                                      Integer limit, Consumer<CourseResponse> sink) {
+        // Stored codes are upper-case and classifications lower-case; match filters like MySQL's _ci collation
+        String departmentFilter = departmentCode != null ? departmentCode.toUpperCase(Locale.ROOT) : null;
+        String classificationFilter = classification != null ? classification.toLowerCase(Locale.ROOT) : null;
+
+        CourseCatalogCache.Catalog catalog = getCatalog();
+        if (catalog.isComplete()) {
+            return page(catalog.courses().stream()
+                    .filter(course -> departmentFilter == null || departmentFilter.equals(course.getDepartmentCode()))
+                    .filter(course -> classificationFilter == null
+                            || classificationFilter.equals(course.getClassification()))
+                    .filter(course -> after == null || isAfter(course, after)), limit, sink);
+        }
+
+        String afterDepartmentCode = after != null ? after.getDepartmentCode() : null;
+        String afterNumber = after != null ? after.getNumber() : null;
+        Limit fetchLimit = limit != null ? Limit.of(limit + 1) : Limit.unlimited();
+
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<CourseResponse> courses = courseRepository.streamResponsePage(
+                    departmentFilter, classificationFilter, afterDepartmentCode, afterNumber, fetchLimit)) {
+                return page(courses, limit, sink);
+            }
+        });
+    }
+
+    /**
+     * Write up to limit courses to the sink; a cursor is returned if a further course exists
+     */
+    private static CourseCursor page(Stream<CourseResponse> courses, Integer limit, Consumer<CourseResponse> sink) {
+        int written = 0;
+        CourseResponse last = null;
+        boolean hasMore = false;
+
+        for (CourseResponse course : (Iterable<CourseResponse>) courses::iterator) {
+            if (limit != null && written == limit) {
+                hasMore = true;
+                break;
+            }
+            sink.accept(course);
+            last = course;
+            written++;
+        }
+
+        return hasMore ? new CourseCursor(last.getDepartmentCode(), last.getNumber()) : null;
+    }
+
+    // Same ordering as the keyset query under MySQL's case-insensitive collation (numbers may mix case)
+    private static boolean isAfter(CourseResponse course, CourseCursor cursor) {
+        int department = String.CASE_INSENSITIVE_ORDER.compare(course.getDepartmentCode(), cursor.getDepartmentCode());
+        return department > 0 || (department == 0
+                && String.CASE_INSENSITIVE_ORDER.compare(course.getNumber(), cursor.getNumber()) > 0);
     }
 
     /**
      * Get a course by ID
      */
     public CourseResponse getCourseById(UUID courseId) {
-        Course course = courseRepository.findById(courseId)
+        return courseCatalogCache.getCourse(courseId, courseRepository::findResponseById)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
-        return mapToResponse(course);
+    }
+
+    /**
+     * Version of a course from its date_updated; a miss loads the course into the cache,
+     * where the 200 response that usually follows will find it
+     */
+    public Optional<ResourceVersion> getCourseVersion(UUID courseId) {
+        return courseCatalogCache.getCourse(courseId, courseRepository::findResponseById)
+                .map(course -> ResourceVersion.of(course.getDateUpdated()));
+    }
+
+    /**
+     * Aggregate version of the catalog (course count + latest date_updated).
+     * Shared by every filter and page of the listing, so any change revalidates all of them.
+     */
+    public ResourceVersion getCatalogVersion() {
+        CourseCatalogCache.Catalog catalog = getCatalog();
+        if (catalog.isComplete()) {
+            return catalog.version();
+        }
+        CourseRepository.CatalogVersion version = courseRepository.findCatalogVersion();
+        return ResourceVersion.ofCollection(version.getCount(), version.getLastUpdated());
+    }
+
+    /**
+     * The cached, ordered catalog snapshot and its version; incomplete when it exceeds the cache limit
+     */
+    public CourseCatalogCache.Catalog getCatalog() {
+        return courseCatalogCache.getCatalog(
+                () -> courseRepository.findAllResponses(Limit.of(courseCatalogCache.getMaxCatalogSize() + 1)));
     }
 
     /**
      * Find course entity by ID
      */
+    @Transactional(readOnly = true)
     public Optional<Course> findById(UUID courseId) {
         return courseRepository.findById(courseId);
     }
@@ -111,6 +290,7 @@ public class CourseService {
 
         if (updated) {
             course = courseRepository.save(course);
+            courseCatalogCache.invalidate(courseId);
         }
 
         return mapToResponse(course);
@@ -130,6 +310,27 @@ public class CourseService {
         }
 
         courseRepository.delete(course);
+        courseCatalogCache.invalidate(courseId);
+    }
+
+    private static String duplicateMessage(CourseCreateRequest request) {
+        return "A course with department_code '" + request.getDepartmentCode()
+                + "' and number '" + request.getNumber() + "' already exists";
+    }
+
+    /**
+     * Map a create request to a new, unsaved entity
+     */
+    private static Course toEntity(CourseCreateRequest request) {
+        Course course = new Course();
+        course.setDepartmentCode(request.getDepartmentCode());
+        course.setNumber(request.getNumber());
+        course.setTitle(request.getTitle());
+        course.setCreditHours(request.getCreditHours());
+        course.setClassification(request.getClassification());
+        course.setDescription(request.getDescription());
+        course.setPrerequisites(request.getPrerequisites());
+        return course;
     }
 
     /**
@@ -0,0 +1,126 @@
+package com.csye6225.webapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, TTL-evicting cache of recently verified HTTP Basic credentials.
+ * Raw passwords are never stored: each entry holds an HMAC of (username, password)
+ * under a per-process random key, bound to the stored password hash it was verified against.
+ * Invalidations are published to CacheInvalidationLog so peers drop the credential too.
+ */
+@Component
+public class CredentialCache implements MeterBinder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String CACHE_NAME = "auth.credential";
+
+    private final SecretKeySpec hmacKey;
+    private final Cache<String, VerifiedCredential> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final CacheInvalidationLog invalidationLog;
+
+    public CredentialCache(CacheInvalidationLog invalidationLog,
+                           @Value("${auth.credential-cache.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${auth.credential-cache.max-entries:10000}") long maxEntries) {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.hmacKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+        this.invalidationLog = invalidationLog;
+        invalidationLog.subscribe(CACHE_NAME, cache::invalidate, cache::invalidateAll);
+    }
+
+    /**
+     * Check whether this exact credential was verified recently against the same stored hash.
+     */
+    public boolean isVerified(String username, String encodedPassword, boolean enabled, String rawPassword) {
+        VerifiedCredential entry = cache.getIfPresent(username);
+        if (entry != null
+                && entry.enabled() == enabled
+                && entry.encodedPassword().equals(encodedPassword)
+                && MessageDigest.isEqual(entry.digest(), digest(username, rawPassword))) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Remember a credential that has just passed full password verification.
+     */
+    public void recordVerified(String username, String encodedPassword, boolean enabled, String rawPassword) {
+        cache.put(username, new VerifiedCredential(digest(username, rawPassword), encodedPassword, enabled));
+    }
+
+    /**
+     * Drop any cached credential for the user (password change, verification change), here and on peers
+     */
+    public void invalidate(String username) {
+        cache.invalidate(username);
+        invalidationLog.publish(CACHE_NAME, username);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Expose hit/miss counts and size as cache.gets / cache.size{cache=auth.credential}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    private byte[] digest(String username, String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+
+    private record VerifiedCredential(byte[] digest, String encodedPassword, boolean enabled) {
+    }
+}
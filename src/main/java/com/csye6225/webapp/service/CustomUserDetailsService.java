@@ -16,10 +16,13 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserCache userCache;
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // 1. Fetch user from database
-        User user = userRepository.findByUsername(username)
+        // 1. Fetch user (request/process cache first, then database)
+        User user = userCache.get(username, userRepository::findByUsername)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
         
         // 2. Get the verification status dynamically from the database entity
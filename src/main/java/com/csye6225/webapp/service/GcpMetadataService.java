@@ -1,75 +1,73 @@
 package com.csye6225.webapp.service;
 
-import com.csye6225.webapp.exception.MetadataUnavailableException;
 import com.csye6225.webapp.model.MetadataResponse;
 import com.csye6225.webapp.model.NetworkInterface;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.ArrayList;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
-public class GcpMetadataService implements MetadataService {
-    
-    private static final String METADATA_BASE = "http://metadata.google.internal/computeMetadata/v1/instance/";
-    private static final int TIMEOUT_MS = 2000;
-    
+public class GcpMetadataService extends CachedMetadataService {
+
+    @Value("${metadata.gcp.base-url:http://metadata.google.internal/computeMetadata/v1/}")
+    private String baseUrl;
+
     @Override
-    public MetadataResponse getMetadata() {
-        try {
-            String instanceId = fetchMetadata("id");
-            String zoneFull = fetchMetadata("zone");
-            String machineTypeFull = fetchMetadata("machine-type");
-            
-            // Parse GCP fully qualified paths
-            // zone: "projects/123456/zones/us-east1-b" -> "us-east1-b"
-            String region = extractLastSegment(zoneFull);
-            
-            // machine-type: "projects/123456/machineTypes/e2-medium" -> "e2-medium"
-            String machineType = extractLastSegment(machineTypeFull);
-            
-            // Get network interfaces
-            List<NetworkInterface> interfaces = getNetworkInterfaces();
-            
-            return new MetadataResponse("gcp", instanceId, region, machineType, interfaces);
-            
-        } catch (Exception e) {
-            throw new MetadataUnavailableException("Failed to retrieve GCP metadata", e);
-        }
-    }
-    
-    private List<NetworkInterface> getNetworkInterfaces() throws Exception {
-        List<NetworkInterface> interfaces = new ArrayList<>();
+    protected CompletableFuture<MetadataResponse> loadMetadata() {
+        CompletableFuture<String> instanceId = fetchMetadata("id");
+        CompletableFuture<String> zoneFull = fetchMetadata("zone");
+        CompletableFuture<String> machineTypeFull = fetchMetadata("machine-type");
+        CompletableFuture<List<NetworkInterface>> interfaces = getNetworkInterfaces();
         
-        // Get number of network interfaces
-        String interfacesData = fetchMetadata("network-interfaces/");
-        String[] interfaceIndices = interfacesData.trim().split("\n");
-        
-        for (String index : interfaceIndices) {
-            index = index.replace("/", "").trim();
-            if (index.isEmpty()) continue;
-            
-            String privateIp = fetchMetadata("network-interfaces/" + index + "/ip");
-            String networkFull = fetchMetadata("network-interfaces/" + index + "/network");
-            String network = extractLastSegment(networkFull);
-            
-            String publicIp = null;
-            try {
-                publicIp = fetchMetadata("network-interfaces/" + index + "/access-configs/0/external-ip");
-            } catch (Exception e) {
-                // Public IP may not exist
-            }
-            
-            interfaces.add(new NetworkInterface(privateIp, publicIp, network));
-        }
+        return CompletableFuture.allOf(instanceId, zoneFull, machineTypeFull, interfaces)
+                .thenApply(ignored -> {
+                    // Parse GCP fully qualified paths
+                    // zone: "projects/123456/zones/us-east1-b" -> "us-east1-b"
+                    String region = extractLastSegment(zoneFull.join());
+                    
+                    // machine-type: "projects/123456/machineTypes/e2-medium" -> "e2-medium"
+                    String machineType = extractLastSegment(machineTypeFull.join());
+                    
+                    return new MetadataResponse("gcp", instanceId.join(), region, machineType, interfaces.join());
+                });
+    }
+
+    @Override
+    protected String platform() {
+        return "gcp";
+    }
+
+    @Override
+    protected String failureMessage() {
+        return "Failed to retrieve GCP metadata";
+    }
+
+    private CompletableFuture<List<NetworkInterface>> getNetworkInterfaces() {
+        // Get interface indices, then every interface's fields at once
+        return fetchMetadata("network-interfaces/")
+                .thenCompose(interfacesData -> allOf(Arrays.stream(interfacesData.split("\n"))
+                        .map(index -> index.replace("/", "").trim())
+                        .filter(index -> !index.isEmpty())
+                        .map(this::getNetworkInterface)
+                        .toList()));
+    }
+
+    private CompletableFuture<NetworkInterface> getNetworkInterface(String index) {
+        String prefix = "network-interfaces/" + index;
+        CompletableFuture<String> privateIp = fetchMetadata(prefix + "/ip");
+        CompletableFuture<String> networkFull = fetchMetadata(prefix + "/network");
+        // Public IP may not exist
+        CompletableFuture<String> publicIp = fetchOptional(metadataRequest(prefix + "/access-configs/0/external-ip"));
         
-        return interfaces;
+        return CompletableFuture.allOf(privateIp, networkFull, publicIp)
+                .thenApply(ignored -> new NetworkInterface(privateIp.join(), publicIp.join(),
+                        extractLastSegment(networkFull.join())));
     }
-    
+
     /**
      * Extract last segment from GCP fully qualified path
      * Example: "projects/123/zones/us-east1-b" -> "us-east1-b"
@@ -81,31 +79,15 @@ public class GcpMetadataService implements MetadataService {
         String[] parts = fullPath.split("/");
         return parts[parts.length - 1];
     }
-    
-    private String fetchMetadata(String path) throws Exception {
-        URL url = new URL(METADATA_BASE + path);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(TIMEOUT_MS);
-        conn.setReadTimeout(TIMEOUT_MS);
-        conn.setRequestProperty("Metadata-Flavor", "Google");  // Required for GCP
-        
-        int responseCode = conn.getResponseCode();
-        if (responseCode != 200) {
-            throw new Exception("Failed to fetch GCP metadata: " + path);
-        }
-        
-        BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
-        
-        while ((line = reader.readLine()) != null) {
-            response.append(line).append("\n");
-        }
-        
-        reader.close();
-        conn.disconnect();
-        
-        return response.toString().trim();
+
+    private CompletableFuture<String> fetchMetadata(String path) {
+        return fetch(metadataRequest(path));
+    }
+
+    private HttpRequest metadataRequest(String path) {
+        return request(baseUrl + "instance/" + path)
+                .header("Metadata-Flavor", "Google")  // Required for GCP
+                .GET()
+                .build();
     }
 }
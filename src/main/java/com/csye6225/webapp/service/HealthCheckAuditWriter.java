@@ -0,0 +1,110 @@
+package com.csye6225.webapp.service;
+
+import com.csye6225.webapp.entity.HealthCheck;
+import com.csye6225.webapp.repository.HealthCheckRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional audit trail of health probes in the health_checks table.
+ * Probes are sampled (health.audit.sample-rate, default 1 in 100: every Nth probe is kept),
+ * queued in memory and written in batches by a scheduled flush; rows older than
+ * health.audit.retention are pruned periodically. A sample rate of 1.0 records every probe.
+ */
+@Component
+public class HealthCheckAuditWriter {
+
+    @Autowired
+    private HealthCheckRepository healthCheckRepository;
+
+    @Value("${health.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${health.audit.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${health.audit.batch-size:500}")
+    private int batchSize;
+
+    // Probes beyond this are dropped rather than growing the heap if the DB falls behind
+    @Value("${health.audit.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${health.audit.retention:P7D}")
+    private Duration retention;
+
+    private final ConcurrentLinkedQueue<LocalDateTime> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong probes = new AtomicLong();
+
+    /**
+     * Queue a probe for the audit table, subject to sampling
+     */
+    public void record() {
+        if (!enabled || sampleRate <= 0 || probes.incrementAndGet() % sampleInterval() != 0) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            return;
+        }
+        pending.offer(LocalDateTime.now());
+    }
+
+    /**
+     * Write queued probes, one transaction per batch
+     */
+    @Scheduled(fixedDelayString = "${health.audit.flush-interval:PT5S}")
+    public void flush() {
+        List<HealthCheck> batch = new ArrayList<>(batchSize);
+        LocalDateTime checkDatetime;
+        while ((checkDatetime = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            HealthCheck healthCheck = new HealthCheck();
+            healthCheck.setCheckDatetime(checkDatetime);
+            batch.add(healthCheck);
+            if (batch.size() == batchSize) {
+                healthCheckRepository.saveAll(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            healthCheckRepository.saveAll(batch);
+        }
+    }
+
+    /**
+     * Delete audit rows past the retention period
+     */
+    @Scheduled(fixedDelayString = "${health.audit.prune-interval:PT1H}")
+    public void prune() {
+        if (enabled) {
+            healthCheckRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        }
+    }
+
+    // 1 / sample-rate, so every Nth probe is recorded
+    private long sampleInterval() {
+        return Math.max(1, Math.round(1 / sampleRate));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Best effort: the database may already be unavailable during shutdown
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.csye6225.webapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Database liveness for /healthz.
+ * Borrows a pooled connection and validates it (JDBC isValid, i.e. a driver ping) instead
+ * of writing a row. Probes that arrive while a check is running, or within health.check.cache-window
+ * of the last one, share its result, so a burst of load balancer probes costs one check.
+ */
+@Service
+public class HealthCheckService {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private HealthCheckAuditWriter auditWriter;
+
+    @Value("${health.check.cache-window:PT1S}")
+    private Duration cacheWindow;
+
+    @Value("${health.check.validation-timeout-seconds:2}")
+    private int validationTimeoutSeconds;
+
+    private final AtomicReference<Probe> lastProbe = new AtomicReference<>();
+
+    /**
+     * True when the database is reachable. Successful probes are handed to the audit writer.
+     */
+    public boolean isHealthy() {
+        boolean healthy = currentProbe().result().join();
+        if (healthy) {
+            auditWriter.record();
+        }
+        return healthy;
+    }
+
+    private Probe currentProbe() {
+        while (true) {
+            Probe current = lastProbe.get();
+            if (current != null && !isStale(current)) {
+                return current;
+            }
+            Probe next = new Probe(new CompletableFuture<>(), System.nanoTime());
+            if (lastProbe.compareAndSet(current, next)) {
+                // The winning caller runs the check; everyone else waits on its future
+                next.result().complete(checkDatabase());
+                return next;
+            }
+        }
+    }
+
+    private boolean isStale(Probe probe) {
+        return probe.result().isDone() && System.nanoTime() - probe.startedNanos() >= cacheWindow.toNanos();
+    }
+
+    private boolean checkDatabase() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private record Probe(CompletableFuture<Boolean> result, long startedNanos) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.csye6225.webapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in store of serialized UTF-8 JSON bodies for immutable response versions.
+ * Each entry is keyed by resource and tagged with a version that changes whenever the response
+ * would (an ETag, date_updated); a request for the stored version gets the bytes without running
+ * Jackson, any other version is serialized again and replaces the entry. Bounded by total bytes.
+ */
+@Component
+public class JsonResponseCache implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<Key, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public JsonResponseCache(ObjectMapper objectMapper,
+                             @Value("${json.response-cache.enabled:true}") boolean enabled,
+                             @Value("${json.response-cache.max-size:32MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> entry.json().length)
+                .build();
+    }
+
+    /**
+     * JSON for one version of a resource
+     *
+     * @param kind     resource type, so ids of different types never collide
+     * @param version  compared with equals(); must change whenever the serialized form would
+     * @param response supplies the value to serialize on a miss
+     */
+    public byte[] get(String kind, Object id, Object version, Supplier<?> response) {
+        if (!enabled) {
+            return serialize(response.get());
+        }
+        Key key = new Key(kind, id);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.version().equals(version)) {
+            hits.increment();
+            return entry.json();
+        }
+        misses.increment();
+        byte[] json = serialize(response.get());
+        cache.put(key, new Entry(version, json));
+        return json;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Version hits/misses and entry count as cache.gets / cache.size{cache=json.response}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "json.response", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "json.response", "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tags("cache", "json.response")
+                .register(registry);
+    }
+
+    private record Key(String kind, Object id) {
+    }
+
+    private record Entry(Object version, byte[] json) {
+    }
+}
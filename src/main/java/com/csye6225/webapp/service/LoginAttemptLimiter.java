@@ -0,0 +1,195 @@
+package com.csye6225.webapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory sliding-window count of failed Basic logins per client IP and per (username, client IP).
+ * Failures (wrong password or unknown user) arrive as authentication events; once either key
+ * reaches its limit, LoginRateLimitFilter turns further Basic attempts away before the user
+ * lookup and password hash run. Keying the username limit by IP means failures from one client
+ * never lock the account's owner out from another; guessing spread over many IPs is bounded
+ * by the per-IP limit of each. Each key keeps a ring of LongAdder buckets, so concurrent
+ * failures never contend on a lock; keys expire one window after their last failure and the
+ * number of tracked keys is capped.
+ */
+@Component
+public class LoginAttemptLimiter implements MeterBinder {
+
+    private static final int BUCKETS = 10;
+
+    private final boolean enabled;
+    private final int maxFailuresPerIp;
+    private final int maxFailuresPerUsername;
+    private final long bucketNanos;
+    private final Duration window;
+    private final Cache<String, SlidingWindow> byIp;
+    private final Cache<String, SlidingWindow> byUsername;
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByUsername = new LongAdder();
+
+    public LoginAttemptLimiter(@Value("${auth.login-limit.enabled:true}") boolean enabled,
+                               @Value("${auth.login-limit.window:PT5M}") Duration window,
+                               @Value("${auth.login-limit.max-failures-per-ip:50}") int maxFailuresPerIp,
+                               @Value("${auth.login-limit.max-failures-per-username:10}") int maxFailuresPerUsername,
+                               @Value("${auth.login-limit.max-entries:100000}") long maxEntries) {
+        this.enabled = enabled;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.window = window;
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+        // Access = a recorded failure (checks read quietly), so a key lives one window past its last failure
+        this.byIp = Caffeine.newBuilder().expireAfterAccess(window).maximumSize(maxEntries).build();
+        this.byUsername = Caffeine.newBuilder().expireAfterAccess(window).maximumSize(maxEntries).build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * True when the client IP, or this username from that IP, has used up its failures for the current window
+     */
+    public boolean isBlocked(String clientIp, String username) {
+        long now = System.nanoTime();
+        if (exceeds(byIp, clientIp, maxFailuresPerIp, now)) {
+            rejectedByIp.increment();
+            return true;
+        }
+        if (exceeds(byUsername, usernameKey(username, clientIp), maxFailuresPerUsername, now)) {
+            rejectedByUsername.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Count one failed login against the IP and the (username, IP) pair
+     */
+    public void recordFailure(String clientIp, String username) {
+        long now = System.nanoTime();
+        failures.increment();
+        if (clientIp != null) {
+            byIp.get(clientIp, key -> new SlidingWindow()).record(now, bucketNanos);
+        }
+        if (username != null) {
+            byUsername.get(usernameKey(username, clientIp), key -> new SlidingWindow()).record(now, bucketNanos);
+        }
+    }
+
+    /**
+     * Bad password or unknown user from the Basic filter; details carry the client address
+     */
+    @EventListener
+    public void onAuthenticationFailure(AuthenticationFailureBadCredentialsEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Authentication authentication = event.getAuthentication();
+        String clientIp = authentication.getDetails() instanceof WebAuthenticationDetails details
+                ? details.getRemoteAddress() : null;
+        recordFailure(clientIp, authentication.getName());
+    }
+
+    /**
+     * Seconds until the oldest bucket leaves the window, for Retry-After
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, Duration.ofNanos(bucketNanos).toSeconds());
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Expose auth.login.failures, auth.login.rejected{limit} and auth.login.tracked{limit}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.login.failures", failures, LongAdder::sum)
+                .description("Failed Basic logins counted by the login limiter")
+                .register(registry);
+        FunctionCounter.builder("auth.login.rejected", rejectedByIp, LongAdder::sum)
+                .description("Basic logins refused before verification")
+                .tags("limit", "ip")
+                .register(registry);
+        FunctionCounter.builder("auth.login.rejected", rejectedByUsername, LongAdder::sum)
+                .description("Basic logins refused before verification")
+                .tags("limit", "username")
+                .register(registry);
+        Gauge.builder("auth.login.tracked", byIp, Cache::estimatedSize)
+                .tags("limit", "ip")
+                .register(registry);
+        Gauge.builder("auth.login.tracked", byUsername, Cache::estimatedSize)
+                .tags("limit", "username")
+                .register(registry);
+    }
+
+    // (username, IP) key; the NUL separator keeps pairs distinct for any printable username
+    private static String usernameKey(String username, String clientIp) {
+        return username == null ? null : username + '\0' + clientIp;
+    }
+
+    private boolean exceeds(Cache<String, SlidingWindow> counters, String key, int limit, long now) {
+        if (key == null) {
+            return false;
+        }
+        SlidingWindow counter = counters.policy().getIfPresentQuietly(key);
+        return counter != null && counter.count(now, bucketNanos) >= limit;
+    }
+
+    /**
+     * Ring of per-bucket counters tagged with the bucket epoch they hold. A stale bucket is
+     * claimed by CAS on its epoch and reset; an increment racing that reset may be lost,
+     * which only makes the limit slightly more lenient.
+     */
+    private static final class SlidingWindow {
+
+        private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+        private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+        SlidingWindow() {
+            for (int i = 0; i < BUCKETS; i++) {
+                epochs.set(i, Long.MIN_VALUE);
+                counts[i] = new LongAdder();
+            }
+        }
+
+        void record(long now, long bucketNanos) {
+            long epoch = Math.floorDiv(now, bucketNanos);
+            int index = (int) Math.floorMod(epoch, (long) BUCKETS);
+            long held = epochs.get(index);
+            if (held != epoch && epochs.compareAndSet(index, held, epoch)) {
+                counts[index].reset();
+            }
+            counts[index].increment();
+        }
+
+        long count(long now, long bucketNanos) {
+            long oldest = Math.floorDiv(now, bucketNanos) - BUCKETS;
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (epochs.get(i) > oldest) {
+                    total += counts[i].sum();
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.csye6225.webapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A success/failure pair of timers registered once up front, so recording on a hot path
+ * is a nanoTime delta with no tag building, registry lookup or sample allocation.
+ */
+public final class OutcomeTimers {
+
+    private final Timer success;
+    private final Timer failure;
+
+    private OutcomeTimers(Timer success, Timer failure) {
+        this.success = success;
+        this.failure = failure;
+    }
+
+    /**
+     * @param tags extra key/value tag pairs shared by both timers
+     */
+    public static OutcomeTimers register(MeterRegistry registry, String name, String description, String... tags) {
+        return new OutcomeTimers(
+                timer(registry, name, description, Tags.of(tags).and("outcome", "success")),
+                timer(registry, name, description, Tags.of(tags).and("outcome", "failure")));
+    }
+
+    /**
+     * Record the time since startNanos (a System.nanoTime() value)
+     */
+    public void record(long startNanos, boolean succeeded) {
+        (succeeded ? success : failure).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.csye6225.webapp.service;
+
+import com.csye6225.webapp.exception.HashingCapacityExceededException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password hashing with bounded concurrency.
+ * At most hash-threads new hashes run at once, so a burst of signups or password changes
+ * cannot take every CPU from other requests. A request hashes on its own thread (there is no
+ * async path to hand it back to the container, so a hop would only add a wait); past the limit
+ * it gets HashingCapacityExceededException (429) at once instead of queueing.
+ * Background re-hashes go through a small executor with a bounded queue and share the same limit.
+ * Hashing and matching go through the application's PasswordEncoder (see PasswordEncoderConfig);
+ * hashes it would upgrade are reported by needsUpgrade and re-hashed after a successful login.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final Semaphore hashing;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${auth.password.hash-threads:0}") int threads,
+                          @Value("${auth.password.hash-queue-capacity:64}") int queueCapacity) {
+        this.encoder = passwordEncoder;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashing = new Semaphore(poolSize);
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, queue, task -> {
+            Thread thread = new Thread(task, "password-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hash a password with the current algorithm and cost on the calling thread
+     *
+     * @throws HashingCapacityExceededException if hash-threads hashes are already running
+     */
+    public String encode(CharSequence rawPassword) {
+        if (!hashing.tryAcquire()) {
+            throw new HashingCapacityExceededException("Password hashing capacity exceeded");
+        }
+        try {
+            return encoder.encode(rawPassword);
+        } finally {
+            hashing.release();
+        }
+    }
+
+    /**
+     * Hash a password in the background; the task waits for a hashing slot, so it never
+     * pushes concurrent hashes past the limit
+     *
+     * @throws HashingCapacityExceededException if the background queue is full
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                hashing.acquireUninterruptibly();
+                try {
+                    return encoder.encode(rawPassword);
+                } finally {
+                    hashing.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            throw new HashingCapacityExceededException("Password hashing capacity exceeded", e);
+        }
+    }
+
+    /**
+     * Check a password against a stored hash of any supported algorithm or cost (runs on the caller's thread)
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return encoder.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * True when a stored hash uses another algorithm or a lower cost than new hashes
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,104 @@
+package com.csye6225.webapp.service;
+
+import com.csye6225.webapp.entity.S3CleanupTask;
+import com.csye6225.webapp.repository.S3CleanupTaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+
+/**
+ * Drains the S3 cleanup outbox.
+ * Rows are written by the transaction that drops the owning record; the delete is attempted
+ * right after commit and retried with backoff by a periodic sweep, so no DB connection is
+ * held while talking to S3 and a failed S3 call never rolls back the user-visible change.
+ */
+@Component
+public class S3CleanupWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    @Autowired
+    private S3CleanupTaskRepository taskRepository;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${aws.s3.cleanup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${aws.s3.cleanup.retry-backoff:PT30S}")
+    private Duration retryBackoff;
+
+    @Value("${aws.s3.cleanup.max-retry-backoff:PT1H}")
+    private Duration maxRetryBackoff;
+
+    /**
+     * Queue an object for deletion. Call inside the transaction that removes the record
+     * pointing at it, so the two commit or roll back together.
+     */
+    public void enqueue(String bucketName, String objectKey) {
+        S3CleanupTask task = new S3CleanupTask();
+        task.setS3BucketName(bucketName);
+        task.setS3ObjectKey(objectKey);
+        S3CleanupTask saved = taskRepository.save(task);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    taskExecutor.execute(() -> process(saved));
+                }
+            });
+        }
+    }
+
+    /**
+     * Retry deletes that failed or were never dispatched (e.g. the node stopped after commit)
+     */
+    @Scheduled(fixedDelayString = "${aws.s3.cleanup.interval:PT30S}")
+    public void processPending() {
+        if (!s3Service.isConfigured()) {
+            return;
+        }
+        taskRepository.findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(LocalDateTime.now(), Limit.of(batchSize))
+                .forEach(this::process);
+    }
+
+    private void process(S3CleanupTask task) {
+        if (!s3Service.isConfigured()) {
+            return;
+        }
+        try {
+            // S3 deletes are idempotent, so racing with another node's sweep is harmless
+            s3Service.deleteFile(task.getS3BucketName(), task.getS3ObjectKey());
+        } catch (RuntimeException e) {
+            int attempts = task.getAttempts() + 1;
+            taskRepository.recordFailure(task.getId(), truncate(String.valueOf(e.getMessage())),
+                    LocalDateTime.now().plus(backoff(attempts)));
+            return;
+        }
+        taskRepository.deleteById(task.getId());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,23 +1,102 @@
 package com.csye6225.webapp.service;
 
+import com.csye6225.webapp.exception.UploadCapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class S3Service {
 
+    // S3 rejects multipart parts smaller than 5 MiB (except the last one)
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final String bucketName;
+    private final long multipartThreshold;
+    private final int partSize;
+    private final int uploadParallelism;
+    private final PartBufferPool partBuffers;
+    private final ExecutorService uploadExecutor;
+    private final ExecutorService asyncReadExecutor;
+    private final OutcomeTimers putTimers;
+    private final OutcomeTimers multipartTimers;
+    private final OutcomeTimers asyncPutTimers;
+    private final OutcomeTimers deleteTimers;
 
-    public S3Service(@Autowired(required = false) S3Client s3Client,
-                     @Value("${aws.s3.bucket-name:}") String bucketName) {
+    public S3Service(MeterRegistry meterRegistry,
+                     @Autowired(required = false) S3Client s3Client,
+                     @Autowired(required = false) S3AsyncClient s3AsyncClient,
+                     @Value("${aws.s3.bucket-name:}") String bucketName,
+                     @Value("${aws.s3.multipart-threshold:16MB}") DataSize multipartThreshold,
+                     @Value("${aws.s3.part-size:8MB}") DataSize partSize,
+                     @Value("${aws.s3.upload-parallelism:4}") int uploadParallelism,
+                     @Value("${aws.s3.max-buffered-parts:16}") int maxBufferedParts,
+                     @Value("${aws.s3.async-read-threads:16}") int asyncReadThreads) {
+        if (partSize.toBytes() < MIN_PART_SIZE || partSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("aws.s3.part-size must be between 5MB and 2GB");
+        }
         this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
         this.bucketName = bucketName;
+        this.multipartThreshold = Math.max(multipartThreshold.toBytes(), partSize.toBytes());
+        this.partSize = (int) partSize.toBytes();
+        this.uploadParallelism = uploadParallelism;
+        this.partBuffers = new PartBufferPool(maxBufferedParts, this.partSize);
+        this.uploadExecutor = Executors.newFixedThreadPool(maxBufferedParts, namedDaemonThreads("s3-upload-"));
+        // Async uploads read their streams on their own threads, so they cannot starve multipart parts
+        this.asyncReadExecutor = Executors.newFixedThreadPool(asyncReadThreads, namedDaemonThreads("s3-async-read-"));
+        this.putTimers = s3Timers(meterRegistry, "put");
+        this.multipartTimers = s3Timers(meterRegistry, "multipart_upload");
+        this.asyncPutTimers = s3Timers(meterRegistry, "async_put");
+        this.deleteTimers = s3Timers(meterRegistry, "delete");
+        Gauge.builder("s3.upload.buffers.available", partBuffers, PartBufferPool::available)
+                .description("Multipart part buffers not currently held by an upload")
+                .register(meterRegistry);
+    }
+
+    private static OutcomeTimers s3Timers(MeterRegistry meterRegistry, String operation) {
+        return OutcomeTimers.register(meterRegistry, "s3.requests", "S3 object operations", "operation", operation);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        uploadExecutor.shutdownNow();
+        asyncReadExecutor.shutdownNow();
     }
 
     public String getBucketName() {
@@ -25,36 +104,308 @@ public class S3Service {
     }
 
     /**
-     * Upload file to S3.
+     * True when the non-blocking S3AsyncClient is configured (aws.s3.async-enabled=true)
+     */
+    public boolean isAsyncEnabled() {
+        return s3AsyncClient != null;
+    }
+
+    /**
+     * Upload file to S3 by streaming it from the given input stream.
+     * Small files go up in a single PUT; files at or above the multipart threshold
+     * are split into parts that are uploaded in parallel from a bounded buffer pool,
+     * so heap use does not grow with file size or with the number of concurrent uploads.
      * @param objectKey the S3 object key (e.g., "courseId/uuid/filename")
-     * @param content the file bytes
+     * @param content the file contents; read exactly contentLength bytes, not closed
+     * @param contentLength number of bytes to upload
      * @param contentType MIME type
      * @return the S3 URL
      */
-    public String uploadFile(String objectKey, byte[] content, String contentType) {
+    public String uploadFile(String objectKey, InputStream content, long contentLength, String contentType)
+            throws IOException {
         if (s3Client == null) {
             throw new IllegalStateException("S3 is not configured");
         }
-        PutObjectRequest putRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(objectKey)
-                .contentType(contentType)
-                .build();
-        s3Client.putObject(putRequest, RequestBody.fromBytes(content));
-        return String.format("https://%s.s3.amazonaws.com/%s", bucketName, objectKey);
+        boolean multipart = contentLength >= multipartThreshold;
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            if (multipart) {
+                multipartUpload(objectKey, content, contentLength, contentType);
+            } else {
+                PutObjectRequest putRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .contentType(contentType)
+                        .contentLength(contentLength)
+                        .build();
+                s3Client.putObject(putRequest, RequestBody.fromInputStream(content, contentLength));
+            }
+            succeeded = true;
+        } finally {
+            (multipart ? multipartTimers : putTimers).record(start, succeeded);
+        }
+        return objectUrl(objectKey);
+    }
+
+    /**
+     * True when a synchronous S3 client is available (aws.s3.bucket-name is set)
+     */
+    public boolean isConfigured() {
+        return s3Client != null;
     }
 
     /**
      * Delete file from S3.
      */
     public void deleteFile(String objectKey) {
+        deleteFile(bucketName, objectKey);
+    }
+
+    /**
+     * Delete an object from the given bucket, e.g. one recorded before a bucket change.
+     */
+    public void deleteFile(String bucket, String objectKey) {
         if (s3Client == null) {
             throw new IllegalStateException("S3 is not configured");
         }
         DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .build();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            s3Client.deleteObject(deleteRequest);
+            succeeded = true;
+        } finally {
+            deleteTimers.record(start, succeeded);
+        }
+    }
+
+    /**
+     * Upload file to S3 without blocking the caller.
+     * The stream is read on a dedicated executor (aws.s3.async-read-threads, separate from the
+     * multipart part uploads) and handed to the Netty-based client;
+     * objects at or above the multipart threshold are uploaded in parts by the SDK.
+     * The stream is closed when the upload finishes, successfully or not, or here if it never starts.
+     * A multipart upload holds one part-buffer slot from the shared pool while it runs (the SDK
+     * buffers one part per call); when none is free it is refused instead of waiting on the caller's thread.
+     * @return future completing with the S3 URL
+     * @throws UploadCapacityExceededException if every part buffer is in use
+     */
+    public CompletableFuture<String> uploadFileAsync(String objectKey, InputStream content, long contentLength,
+                                                     String contentType) {
+        boolean multipart = contentLength >= multipartThreshold;
+        boolean reserved = false;
+        boolean started = false;
+        try {
+            if (s3AsyncClient == null) {
+                throw new IllegalStateException("Async S3 is not configured");
+            }
+            if (multipart) {
+                if (!partBuffers.tryReserve()) {
+                    throw new UploadCapacityExceededException("No S3 upload buffer available");
+                }
+                reserved = true;
+            }
+            PutObjectRequest putRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .contentLength(contentLength)
+                    .build();
+            long start = System.nanoTime();
+            CompletableFuture<PutObjectResponse> put = s3AsyncClient.putObject(putRequest,
+                    AsyncRequestBody.fromInputStream(content, contentLength, asyncReadExecutor));
+            started = true;
+            return put
+                    .whenComplete((response, error) -> {
+                        if (multipart) {
+                            partBuffers.unreserve();
+                        }
+                        asyncPutTimers.record(start, error == null);
+                        closeQuietly(content);
+                    })
+                    .thenApply(response -> objectUrl(objectKey));
+        } finally {
+            if (!started) {
+                if (reserved) {
+                    partBuffers.unreserve();
+                }
+                closeQuietly(content);
+            }
+        }
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException ignored) {
+            // Nothing useful to do; the upload result is already decided
+        }
+    }
+
+    private String objectUrl(String objectKey) {
+        return String.format("https://%s.s3.amazonaws.com/%s", bucketName, objectKey);
+    }
+
+    private void multipartUpload(String objectKey, InputStream content, long contentLength, String contentType)
+            throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
                 .bucket(bucketName)
                 .key(objectKey)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        // Caps the parts of this upload in flight; partBuffers caps them across all uploads
+        Semaphore inFlight = new Semaphore(uploadParallelism);
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            long remaining = contentLength;
+            for (int partNumber = 1; remaining > 0; partNumber++) {
+                int size = (int) Math.min(partSize, remaining);
+                acquire(inFlight);
+                byte[] buffer;
+                try {
+                    buffer = partBuffers.acquire();
+                } catch (IOException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                try {
+                    if (content.readNBytes(buffer, 0, size) != size) {
+                        throw new IOException("Upload stream ended before " + contentLength + " bytes");
+                    }
+                } catch (IOException e) {
+                    partBuffers.release(buffer);
+                    inFlight.release();
+                    throw e;
+                }
+
+                int currentPart = partNumber;
+                try {
+                    // The task itself returns the buffer and slot, so they come back however the part ends
+                    parts.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return uploadPart(objectKey, uploadId, currentPart, buffer, size);
+                        } finally {
+                            partBuffers.release(buffer);
+                            inFlight.release();
+                        }
+                    }, uploadExecutor));
+                } catch (RejectedExecutionException e) {
+                    partBuffers.release(buffer);
+                    inFlight.release();
+                    throw e;
+                }
+                remaining -= size;
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completedParts.add(part.join());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            // Let parts already in flight finish before aborting, so none lands after the abort
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).handle((done, error) -> null).join();
+            abortQuietly(objectKey, uploadId, e);
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPart(String objectKey, String uploadId, int partNumber, byte[] buffer, int size) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) size)
                 .build();
-        s3Client.deleteObject(deleteRequest);
+        // Content provider re-reads the pooled buffer on retry instead of copying it
+        String eTag = s3Client.uploadPart(request, RequestBody.fromContentProvider(
+                () -> new ByteArrayInputStream(buffer, 0, size), size, "application/octet-stream")).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abortQuietly(String objectKey, String uploadId, Exception cause) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException abortError) {
+            cause.addSuppressed(abortError);
+        }
+    }
+
+    private static void acquire(Semaphore semaphore) throws IOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an upload slot");
+        }
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Fixed-capacity pool of part buffers shared by every upload.
+     * Buffers are allocated lazily and reused, so peak heap for multipart uploads
+     * is bounded by max-buffered-parts x part-size.
+     */
+    private static final class PartBufferPool {
+
+        private final Semaphore permits;
+        private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+        private final int bufferSize;
+
+        PartBufferPool(int capacity, int bufferSize) {
+            this.permits = new Semaphore(capacity);
+            this.bufferSize = bufferSize;
+        }
+
+        byte[] acquire() throws IOException {
+            S3Service.acquire(permits);
+            byte[] buffer = free.poll();
+            return buffer != null ? buffer : new byte[bufferSize];
+        }
+
+        void release(byte[] buffer) {
+            free.offer(buffer);
+            permits.release();
+        }
+
+        // Hold a slot without a buffer, for memory the async client allocates itself; never waits
+        boolean tryReserve() {
+            return permits.tryAcquire();
+        }
+
+        void unreserve() {
+            permits.release();
+        }
+
+        int available() {
+            return permits.availablePermits();
+        }
     }
 }
@@ -1,21 +1,31 @@
 package com.csye6225.webapp.service;
 
+import com.csye6225.webapp.dto.ResourceVersion;
 import com.csye6225.webapp.dto.SyllabusResponse;
 import com.csye6225.webapp.entity.Course;
 import com.csye6225.webapp.entity.Syllabus;
 import com.csye6225.webapp.repository.CourseRepository;
 import com.csye6225.webapp.repository.SyllabusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class SyllabusService {
 
+    private static final String ALREADY_EXISTS_MESSAGE =
+            "A syllabus already exists for this course. Delete it before uploading a new one.";
+
     @Autowired
     private SyllabusRepository syllabusRepository;
 
@@ -25,18 +35,138 @@ public class SyllabusService {
     @Autowired
     private S3Service s3Service;
 
+    @Autowired
+    private S3CleanupWorker s3CleanupWorker;
+
+    @Autowired
+    private CourseCatalogCache courseCatalogCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Runs the DB step after an async S3 call, off the SDK's event-loop threads
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
     /**
-     * Upload a syllabus for a course
+     * True when uploads/deletes should use the non-blocking S3 path
+     */
+    public boolean isAsyncEnabled() {
+        return s3Service.isAsyncEnabled();
+    }
+
+    /**
+     * Upload a syllabus for a course.
+     * The S3 transfer runs outside any transaction; only the final insert holds a DB connection,
+     * and the uploaded object is removed again if that insert fails.
      */
-    @Transactional
     public SyllabusResponse uploadSyllabus(UUID courseId, MultipartFile file) throws IOException {
+        // 1-4. Validate course, existing syllabus and file; build the S3 object key
+        PendingUpload upload = prepareUpload(courseId, file);
+
+        // 5. Upload to S3, streaming from the multipart temp file rather than the heap
+        String url;
+        try (InputStream content = file.getInputStream()) {
+            url = s3Service.uploadFile(upload.objectKey(), content, upload.fileSize(), upload.contentType());
+        }
+
+        // 6-9. Record the syllabus and flag the course
+        return saveOrCompensate(courseId, upload, url);
+    }
+
+    /**
+     * Upload a syllabus without holding a servlet thread or a JDBC connection during the S3 transfer.
+     * Validation reads and the final insert each run in their own short transaction.
+     */
+    public CompletableFuture<SyllabusResponse> uploadSyllabusAsync(UUID courseId, MultipartFile file)
+            throws IOException {
+        PendingUpload upload = prepareUpload(courseId, file);
+
+        return s3Service.uploadFileAsync(upload.objectKey(), file.getInputStream(), upload.fileSize(),
+                        upload.contentType())
+                .thenApplyAsync(url -> saveOrCompensate(courseId, upload, url), taskExecutor);
+    }
+
+    /**
+     * Get syllabus for a course
+     */
+    public SyllabusResponse getSyllabus(UUID courseId) {
         // 1. Verify course exists
-        Course course = courseRepository.findById(courseId)
+        courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
 
+        // 2. Find syllabus by courseId
+        Syllabus syllabus = syllabusRepository.findByCourseId(courseId.toString())
+                .orElseThrow(() -> new RuntimeException("No syllabus found for this course"));
+
+        return mapToResponse(syllabus);
+    }
+
+    /**
+     * Version of a course's syllabus from its date_updated alone; empty if there is none
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getSyllabusVersion(UUID courseId) {
+        return syllabusRepository.findDateUpdatedByCourseId(courseId.toString()).map(ResourceVersion::of);
+    }
+
+    /**
+     * Delete syllabus for a course.
+     * Only the DB rows change here; the S3 object is queued in the cleanup outbox in the
+     * same transaction and deleted after commit by S3CleanupWorker.
+     */
+    @Transactional
+    public void deleteSyllabus(UUID courseId) {
+        // 1-2. Verify course and syllabus exist
+        Syllabus syllabus = findSyllabusForDelete(courseId);
+
+        // 3. Queue the S3 object for deletion
+        s3CleanupWorker.enqueue(syllabus.getS3BucketName(), syllabus.getS3ObjectKey());
+
+        // 4-5. Delete syllabus record and clear the course's hasSyllabus flag
+        removeSyllabus(courseId);
+    }
+
+    /**
+     * Run the short insert transaction for an uploaded file; on failure delete the orphaned object
+     */
+    private SyllabusResponse saveOrCompensate(UUID courseId, PendingUpload upload, String url) {
+        try {
+            return transactionTemplate.execute(status -> saveSyllabus(courseId, upload, url));
+        } catch (RuntimeException e) {
+            try {
+                s3Service.deleteFile(upload.objectKey());
+            } catch (RuntimeException deleteError) {
+                e.addSuppressed(deleteError);
+                enqueueCleanupQuietly(upload.objectKey(), e);
+            }
+            throw e;
+        }
+    }
+
+    // Last resort when the compensating delete fails: leave it to the outbox sweep if the DB is reachable
+    private void enqueueCleanupQuietly(String objectKey, RuntimeException cause) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> s3CleanupWorker.enqueue(s3Service.getBucketName(), objectKey));
+        } catch (RuntimeException enqueueError) {
+            cause.addSuppressed(enqueueError);
+        }
+    }
+
+    /**
+     * Validate an upload request and work out where the file will live in S3
+     */
+    private PendingUpload prepareUpload(UUID courseId, MultipartFile file) {
+        // 1. Verify course exists
+        if (!courseRepository.existsById(courseId)) {
+            throw new RuntimeException("Course not found");
+        }
+
         // 2. Check if syllabus already exists
         if (syllabusRepository.existsByCourseId(courseId.toString())) {
-            throw new IllegalArgumentException("A syllabus already exists for this course. Delete it before uploading a new one.");
+            throw new IllegalArgumentException(ALREADY_EXISTS_MESSAGE);
         }
 
         // 3. Validate file
@@ -51,21 +181,34 @@ public class SyllabusService {
         }
         String objectKey = courseId + "/" + UUID.randomUUID() + "/" + originalFileName;
 
-        // 5. Upload to S3
         String contentType = file.getContentType();
         if (contentType == null || contentType.isBlank()) {
             contentType = "application/octet-stream";
         }
-        String url = s3Service.uploadFile(objectKey, file.getBytes(), contentType);
+
+        return new PendingUpload(objectKey, originalFileName, contentType, file.getSize());
+    }
+
+    /**
+     * Persist an uploaded syllabus; must run inside a transaction
+     */
+    private SyllabusResponse saveSyllabus(UUID courseId, PendingUpload upload, String url) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+
+        // Re-check: another upload may have finished while this file was in flight
+        if (syllabusRepository.existsByCourseId(courseId.toString())) {
+            throw new IllegalArgumentException(ALREADY_EXISTS_MESSAGE);
+        }
 
         // 6. Create Syllabus entity
         Syllabus syllabus = new Syllabus();
         syllabus.setCourseId(courseId.toString());
-        syllabus.setFileName(originalFileName);
+        syllabus.setFileName(upload.fileName());
         syllabus.setS3BucketName(s3Service.getBucketName());
-        syllabus.setS3ObjectKey(objectKey);
-        syllabus.setContentType(contentType);
-        syllabus.setFileSize(file.getSize());
+        syllabus.setS3ObjectKey(upload.objectKey());
+        syllabus.setContentType(upload.contentType());
+        syllabus.setFileSize(upload.fileSize());
         syllabus.setUrl(url);
 
         // 7. Save to database
@@ -74,48 +217,38 @@ public class SyllabusService {
         // 8. Update course's hasSyllabus flag
         course.setHasSyllabus(true);
         courseRepository.save(course);
+        courseCatalogCache.invalidate(courseId);
 
         // 9. Return response
         return mapToResponse(savedSyllabus);
     }
 
-    /**
-     * Get syllabus for a course
-     */
-    public SyllabusResponse getSyllabus(UUID courseId) {
+    private Syllabus findSyllabusForDelete(UUID courseId) {
         // 1. Verify course exists
-        courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
+        if (!courseRepository.existsById(courseId)) {
+            throw new RuntimeException("Course not found");
+        }
 
         // 2. Find syllabus by courseId
-        Syllabus syllabus = syllabusRepository.findByCourseId(courseId.toString())
+        return syllabusRepository.findByCourseId(courseId.toString())
                 .orElseThrow(() -> new RuntimeException("No syllabus found for this course"));
-
-        return mapToResponse(syllabus);
     }
 
     /**
-     * Delete syllabus for a course
+     * Delete the syllabus row and clear the course flag; must run inside a transaction
      */
-    @Transactional
-    public void deleteSyllabus(UUID courseId) {
-        // 1. Verify course exists
+    private void removeSyllabus(UUID courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
 
-        // 2. Find syllabus by courseId
-        Syllabus syllabus = syllabusRepository.findByCourseId(courseId.toString())
-                .orElseThrow(() -> new RuntimeException("No syllabus found for this course"));
-
-        // 3. Delete file from S3
-        s3Service.deleteFile(syllabus.getS3ObjectKey());
-
         // 4. Delete syllabus record from database
-        syllabusRepository.delete(syllabus);
+        syllabusRepository.findByCourseId(courseId.toString())
+                .ifPresent(syllabusRepository::delete);
 
         // 5. Update course's hasSyllabus flag
         course.setHasSyllabus(false);
         courseRepository.save(course);
+        courseCatalogCache.invalidate(courseId);
     }
 
     /**
@@ -135,4 +268,10 @@ public class SyllabusService {
             syllabus.getDateUpdated()
         );
     }
+
+    /**
+     * Validated upload metadata carried between the S3 transfer and the DB insert
+     */
+    private record PendingUpload(String objectKey, String fileName, String contentType, long fileSize) {
+    }
 }
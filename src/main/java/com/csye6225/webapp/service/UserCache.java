@@ -0,0 +1,148 @@
+package com.csye6225.webapp.service;
+
+import com.csye6225.webapp.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Two-level user lookup cache shared by the authentication layer and the controllers.
+ * Level 1 is the current HTTP request, so the user loaded during authentication is reused
+ * by the controller. Level 2 is a bounded, TTL-evicting process-wide cache.
+ * Usernames with no account are remembered briefly in a separate bounded set, so repeated
+ * lookups for them (scanners, typos) answer "no such user" without querying the database.
+ * Callers always receive a detached copy, so mutating it never corrupts the shared entry.
+ * Invalidations are published to CacheInvalidationLog so peers drop their copy too.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = UserCache.class.getName() + ".";
+    private static final String CACHE_NAME = "auth.user";
+    private static final String MISSING_CACHE_NAME = "auth.user.missing";
+
+    private final Cache<String, User> cache;
+    private final Cache<String, Boolean> missing;
+    private final CacheInvalidationLog invalidationLog;
+
+    public UserCache(CacheInvalidationLog invalidationLog,
+                     @Value("${auth.user-cache.ttl-seconds:60}") long ttlSeconds,
+                     @Value("${auth.user-cache.max-entries:10000}") long maxEntries,
+                     @Value("${auth.user-cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                     @Value("${auth.user-cache.negative-max-entries:10000}") long negativeMaxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .maximumSize(negativeMaxEntries)
+                .recordStats()
+                .build();
+        this.invalidationLog = invalidationLog;
+        invalidationLog.subscribe(CACHE_NAME, username -> {
+            cache.invalidate(username);
+            missing.invalidate(username);
+        }, () -> {
+            cache.invalidateAll();
+            missing.invalidateAll();
+        });
+    }
+
+    /**
+     * Look up a user, falling back to the loader on a miss in both levels.
+     * A username the loader did not find is not looked up again until the negative entry expires
+     * or the username is invalidated (signup).
+     */
+    public Optional<User> get(String username, Function<String, Optional<User>> loader) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        String attributeName = REQUEST_ATTRIBUTE_PREFIX + username;
+
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST) instanceof User user) {
+            return Optional.of(user);
+        }
+
+        User cached = cache.getIfPresent(username);
+        if (cached == null) {
+            if (missing.getIfPresent(username) != null) {
+                return Optional.empty();
+            }
+            Optional<User> loaded = loader.apply(username);
+            if (loaded.isEmpty()) {
+                missing.put(username, Boolean.TRUE);
+                return Optional.empty();
+            }
+            cached = copyOf(loaded.get());
+            cache.put(username, cached);
+        }
+
+        User user = copyOf(cached);
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(attributeName, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(user);
+    }
+
+    /**
+     * Drop the user from both levels now and again once the transaction commits, so a
+     * concurrent reader cannot re-cache the pre-commit row; peers drop it when they see the log row.
+     */
+    public void invalidate(String username) {
+        evict(username);
+        invalidationLog.publish(CACHE_NAME, username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Expose the process-wide level's Caffeine stats under cache=auth.user, and the
+     * unknown-username set's under cache=auth.user.missing
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(registry, missing, MISSING_CACHE_NAME);
+    }
+
+    private void evict(String username) {
+        cache.invalidate(username);
+        missing.invalidate(username);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + username, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static User copyOf(User source) {
+        User copy = new User();
+        copy.setId(source.getId());
+        copy.setUsername(source.getUsername());
+        copy.setPassword(source.getPassword());
+        copy.setFirstName(source.getFirstName());
+        copy.setLastName(source.getLastName());
+        copy.setVerified(source.isVerified());
+        copy.setAccountCreated(source.getAccountCreated());
+        copy.setAccountUpdated(source.getAccountUpdated());
+        return copy;
+    }
+}
@@ -4,11 +4,12 @@ import com.csye6225.webapp.dto.UserCreateRequest;
 import com.csye6225.webapp.dto.UserResponse;
 import com.csye6225.webapp.dto.UserUpdateRequest;
 import com.csye6225.webapp.entity.User;
+import com.csye6225.webapp.exception.HashingCapacityExceededException;
 import com.csye6225.webapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -19,37 +20,57 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private CredentialCache credentialCache;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private static final String DUPLICATE_USER_MESSAGE = "A user with this email address already exists";
     
     /**
      * Create a new user
+     * The password is hashed before the insert transaction starts,
+     * so no DB connection is held while it runs.
+     *
+     * @throws HashingCapacityExceededException if the hashing concurrency limit is reached
      */
-    @Transactional
     public UserResponse createUser(UserCreateRequest request) {
         // Check if user already exists
         if (userRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException("A user with this email address already exists");
+            throw new IllegalArgumentException(DUPLICATE_USER_MESSAGE);
         }
         
         // Create new user
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword())); // BCrypt encryption
+        user.setPassword(passwordHasher.encode(request.getPassword())); // BCrypt encryption
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         
-        // Save user
-        User savedUser = userRepository.save(user);
-        
-        // Return response
-        return mapToResponse(savedUser);
+        // Save user; the unique username column catches a signup that raced past the check
+        try {
+            return transactionTemplate.execute(status -> {
+                User savedUser = userRepository.save(user);
+                userCache.invalidate(savedUser.getUsername());
+                return mapToResponse(savedUser);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(DUPLICATE_USER_MESSAGE);
+        }
     }
     
     /**
-     * Find user by username
+     * Find user by username (served from UserCache when possible)
      */
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userCache.get(username, userRepository::findByUsername);
     }
     
     /**
@@ -61,29 +82,65 @@ public class UserService {
     
     /**
      * Update user information
+     * A new password is hashed before the update transaction starts. The row is re-read inside
+     * the transaction and only the requested columns are changed: the caller's User is a cached
+     * detached copy that may be stale (peer invalidation lag, a background hash upgrade), so it
+     * is never merged back.
+     *
+     * @throws HashingCapacityExceededException if the hashing concurrency limit is reached
      */
-    @Transactional
     public void updateUser(User user, UserUpdateRequest request) {
-        boolean updated = false;
+        String firstName = nonEmpty(request.getFirstName());
+        String lastName = nonEmpty(request.getLastName());
+        String password = nonEmpty(request.getPassword());
         
-        // Only update allowed fields
-        if (request.getFirstName() != null && !request.getFirstName().isEmpty()) {
-            user.setFirstName(request.getFirstName());
-            updated = true;
+        if (firstName == null && lastName == null && password == null) {
+            return;
         }
         
-        if (request.getLastName() != null && !request.getLastName().isEmpty()) {
-            user.setLastName(request.getLastName());
-            updated = true;
-        }
-        
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword())); // BCrypt encryption
-            updated = true;
+        String encodedPassword = password != null ? passwordHasher.encode(password) : null; // BCrypt encryption
+        transactionTemplate.executeWithoutResult(status -> {
+            User managed = userRepository.findById(user.getId())
+                .orElseThrow(() -> new IllegalStateException("User not found"));
+            
+            // Only update allowed fields; dirty checking flushes just these on commit
+            if (firstName != null) {
+                managed.setFirstName(firstName);
+            }
+            if (lastName != null) {
+                managed.setLastName(lastName);
+            }
+            if (encodedPassword != null) {
+                managed.setPassword(encodedPassword);
+            }
+            userCache.invalidate(managed.getUsername());
+            
+            // Cached credentials must not outlive the password they were verified against
+            if (encodedPassword != null) {
+                credentialCache.invalidate(managed.getUsername());
+            }
+        });
+    }
+    
+    /**
+     * Re-hash a password that was just verified if its stored hash uses a lower work factor
+     * than the current one. Runs in the background; the row is only changed if it still holds
+     * the hash that was verified, so a concurrent password change wins. Skipped when the
+     * background hashing queue is full: the next successful login tries again.
+     */
+    public void upgradePasswordHash(String username, String currentHash, String rawPassword) {
+        if (!passwordHasher.needsUpgrade(currentHash)) {
+            return;
         }
-        
-        if (updated) {
-            userRepository.save(user);
+        try {
+            passwordHasher.encodeAsync(rawPassword).thenAccept(upgradedHash -> transactionTemplate.executeWithoutResult(
+                    status -> {
+                        if (userRepository.updatePasswordIfUnchanged(username, currentHash, upgradedHash) > 0) {
+                            userCache.invalidate(username);
+                        }
+                    }));
+        } catch (HashingCapacityExceededException e) {
+            // Left at the old work factor for now
         }
     }
     
@@ -91,7 +148,11 @@ public class UserService {
      * Verify password
      */
     public boolean verifyPassword(User user, String rawPassword) {
-        return passwordEncoder.matches(rawPassword, user.getPassword());
+        return passwordHasher.matches(rawPassword, user.getPassword());
+    }
+    
+    private static String nonEmpty(String value) {
+        return value == null || value.isEmpty() ? null : value;
     }
     
     /**
@@ -0,0 +1,248 @@
+package com.csye6225.webapp;
+
+import com.csye6225.webapp.dto.CourseCreateRequest;
+import com.csye6225.webapp.dto.CourseResponse;
+import com.csye6225.webapp.dto.CourseUpdateRequest;
+import com.csye6225.webapp.dto.UserCreateRequest;
+import com.csye6225.webapp.dto.UserUpdateRequest;
+import com.csye6225.webapp.entity.User;
+import com.csye6225.webapp.service.CacheInvalidationLog;
+import com.csye6225.webapp.service.CourseService;
+import com.csye6225.webapp.service.CredentialCache;
+import com.csye6225.webapp.service.UserService;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two application instances sharing one H2 database: writes on one node reach the other's
+ * caches through the cache_invalidations log. Polling is driven by the test.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CacheInvalidationIntegrationTests {
+
+    private static final String PASSWORD = "secureP@ssw0rd";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("INV.1 Course updates and creates on one node evict the other node's course and catalog caches")
+    void testCourseInvalidation() {
+        CourseService courseServiceA = nodeA.getBean(CourseService.class);
+        CourseService courseServiceB = nodeB.getBean(CourseService.class);
+
+        CourseResponse created = courseServiceB.createCourse(course("CSYE", "7200", "Cloud Native"));
+        Assertions.assertEquals("Cloud Native", courseServiceA.getCourseById(created.getId()).getTitle());
+        int catalogSize = courseServiceA.getAllCourses().size();
+
+        CourseUpdateRequest update = new CourseUpdateRequest();
+        update.setTitle("Cloud Native Systems");
+        courseServiceB.updateCourse(created.getId(), update);
+        courseServiceB.createCourse(course("CSYE", "7300", "Distributed Systems"));
+
+        // Node A keeps serving its cached copies until it reads the log
+        Assertions.assertEquals("Cloud Native", courseServiceA.getCourseById(created.getId()).getTitle());
+        Assertions.assertEquals(catalogSize, courseServiceA.getAllCourses().size());
+
+        nodeA.getBean(CacheInvalidationLog.class).poll();
+
+        Assertions.assertEquals("Cloud Native Systems", courseServiceA.getCourseById(created.getId()).getTitle());
+        Assertions.assertEquals(catalogSize + 1, courseServiceA.getAllCourses().size());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("INV.2 A password change on one node evicts the other node's user and credential caches")
+    void testUserInvalidation() {
+        String username = "peer" + System.currentTimeMillis() + "@example.com";
+        UserService userServiceA = nodeA.getBean(UserService.class);
+        UserService userServiceB = nodeB.getBean(UserService.class);
+        CredentialCache credentialCacheA = nodeA.getBean(CredentialCache.class);
+
+        UserCreateRequest request = new UserCreateRequest();
+        request.setUsername(username);
+        request.setPassword(PASSWORD);
+        request.setFirstName("Peer");
+        request.setLastName("Node");
+        userServiceB.createUser(request);
+
+        User cached = userServiceA.findByUsername(username).orElseThrow();
+        credentialCacheA.recordVerified(username, cached.getPassword(), true, PASSWORD);
+
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.setFirstName("Renamed");
+        update.setPassword("newP@ssw0rd123");
+        userServiceB.updateUser(userServiceB.findByUsername(username).orElseThrow(), update);
+
+        Assertions.assertEquals("Peer", userServiceA.findByUsername(username).orElseThrow().getFirstName());
+        Assertions.assertTrue(credentialCacheA.isVerified(username, cached.getPassword(), true, PASSWORD));
+
+        nodeA.getBean(CacheInvalidationLog.class).poll();
+
+        Assertions.assertEquals("Renamed", userServiceA.findByUsername(username).orElseThrow().getFirstName());
+        Assertions.assertFalse(credentialCacheA.isVerified(username, cached.getPassword(), true, PASSWORD));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("INV.3 A row committed after a higher id is still applied on the next poll")
+    void testOutOfOrderCommit() throws Exception {
+        CourseService courseServiceA = nodeA.getBean(CourseService.class);
+        CourseService courseServiceB = nodeB.getBean(CourseService.class);
+        CacheInvalidationLog logA = nodeA.getBean(CacheInvalidationLog.class);
+
+        CourseResponse slow = courseServiceB.createCourse(course("INFO", "6150", "Web Design"));
+        CourseResponse fast = courseServiceB.createCourse(course("INFO", "6250", "Web Development"));
+        logA.poll();
+        courseServiceA.getCourseById(slow.getId());
+        courseServiceA.getCourseById(fast.getId());
+
+        // The slow update takes its log id first but commits after the fast one
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = nodeB.getBean(TransactionTemplate.class);
+        CompletableFuture<Void> slowUpdate = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            courseServiceB.updateCourse(slow.getId(), title("Web Design Studio"));
+            published.countDown();
+            await(release);
+        }));
+        Assertions.assertTrue(published.await(10, TimeUnit.SECONDS));
+        courseServiceB.updateCourse(fast.getId(), title("Web Development Tools"));
+
+        logA.poll();
+        Assertions.assertEquals("Web Development Tools", courseServiceA.getCourseById(fast.getId()).getTitle());
+
+        release.countDown();
+        slowUpdate.get(10, TimeUnit.SECONDS);
+        logA.poll();
+        Assertions.assertEquals("Web Design Studio", courseServiceA.getCourseById(slow.getId()).getTitle());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("INV.4 A signup on one node clears the other node's negative entry for that username")
+    void testSignupClearsNegativeEntry() {
+        String username = "latecomer" + System.currentTimeMillis() + "@example.com";
+        UserService userServiceA = nodeA.getBean(UserService.class);
+
+        Assertions.assertTrue(userServiceA.findByUsername(username).isEmpty());
+
+        UserCreateRequest request = new UserCreateRequest();
+        request.setUsername(username);
+        request.setPassword(PASSWORD);
+        request.setFirstName("Late");
+        request.setLastName("Comer");
+        nodeB.getBean(UserService.class).createUser(request);
+
+        Assertions.assertTrue(userServiceA.findByUsername(username).isEmpty());
+
+        nodeA.getBean(CacheInvalidationLog.class).poll();
+
+        Assertions.assertEquals("Late", userServiceA.findByUsername(username).orElseThrow().getFirstName());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("INV.5 An update from a node with a stale cached user keeps the peer's newer password")
+    void testStaleUserUpdate() {
+        String username = "stale" + System.currentTimeMillis() + "@example.com";
+        UserService userServiceA = nodeA.getBean(UserService.class);
+        UserService userServiceB = nodeB.getBean(UserService.class);
+
+        UserCreateRequest request = new UserCreateRequest();
+        request.setUsername(username);
+        request.setPassword(PASSWORD);
+        request.setFirstName("Stale");
+        request.setLastName("Copy");
+        userServiceB.createUser(request);
+        User stale = userServiceA.findByUsername(username).orElseThrow();
+
+        UserUpdateRequest passwordChange = new UserUpdateRequest();
+        passwordChange.setPassword("newP@ssw0rd123");
+        userServiceB.updateUser(userServiceB.findByUsername(username).orElseThrow(), passwordChange);
+
+        // Node A has not polled yet and still holds the old hash
+        UserUpdateRequest rename = new UserUpdateRequest();
+        rename.setLastName("Renamed");
+        userServiceA.updateUser(stale, rename);
+
+        User current = userServiceA.findByUsername(username).orElseThrow();
+        Assertions.assertEquals("Renamed", current.getLastName());
+        Assertions.assertTrue(userServiceA.verifyPassword(current, "newP@ssw0rd123"));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("INV.6 An id jump larger than max-gaps evicts every cache instead of tracking the gap")
+    void testIdJumpEvictsAll() {
+        CourseService courseServiceA = nodeA.getBean(CourseService.class);
+        CourseResponse created = nodeB.getBean(CourseService.class).createCourse(course("DAMG", "6210", "Data Design"));
+        CacheInvalidationLog logA = nodeA.getBean(CacheInvalidationLog.class);
+        logA.poll();
+        Assertions.assertEquals("Data Design", courseServiceA.getCourseById(created.getId()).getTitle());
+
+        // A write node A was never told about, then a log row far past the current end
+        JdbcTemplate jdbcTemplate = nodeB.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE courses SET title = 'Data Architecture' WHERE id = ?", created.getId());
+        long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidations", Long.class);
+        jdbcTemplate.update("INSERT INTO cache_invalidations (id, cache_name, cache_key, origin, date_created) "
+                + "VALUES (?, 'course.catalog', 'all', 'elsewhere', CURRENT_TIMESTAMP)", maxId + 20_000);
+
+        logA.poll();
+
+        Assertions.assertEquals("Data Architecture", courseServiceA.getCourseById(created.getId()).getTitle());
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(WebappApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:invalidationtestdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--cache.invalidation.poll-interval=PT1H");
+    }
+
+    private static CourseCreateRequest course(String departmentCode, String number, String title) {
+        CourseCreateRequest request = new CourseCreateRequest();
+        request.setDepartmentCode(departmentCode);
+        request.setNumber(number);
+        request.setTitle(title);
+        request.setCreditHours(4);
+        request.setClassification("core");
+        return request;
+    }
+
+    private static CourseUpdateRequest title(String title) {
+        CourseUpdateRequest request = new CourseUpdateRequest();
+        request.setTitle(title);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
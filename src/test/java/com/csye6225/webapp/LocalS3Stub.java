@@ -0,0 +1,211 @@
+package com.csye6225.webapp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Minimal in-process S3 stand-in for tests and the load-test harness.
+ * Supports path-style PutObject, DeleteObject and the multipart upload calls
+ * (create / upload part / complete / abort), including aws-chunked request bodies.
+ */
+public class LocalS3Stub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final AtomicBoolean failParts = new AtomicBoolean();
+
+    public LocalS3Stub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Stored object bytes, keyed by "bucket/key"
+     */
+    public Map<String, byte[]> objects() {
+        return objects;
+    }
+
+    public int pendingMultipartUploads() {
+        return uploads.size();
+    }
+
+    /**
+     * Answer every UploadPart with 500 while set
+     */
+    public void setFailPartUploads(boolean fail) {
+        failParts.set(fail);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(1), StandardCharsets.UTF_8);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            if ("PUT".equals(method) && query.containsKey("partNumber")) {
+                byte[] body = readBody(exchange);
+                Map<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+                if (failParts.get()) {
+                    respond(exchange, 500, null);
+                    return;
+                }
+                if (parts == null) {
+                    respond(exchange, 404, null);
+                    return;
+                }
+                parts.put(Integer.parseInt(query.get("partNumber")), body);
+                exchange.getResponseHeaders().add("ETag", eTag(body));
+                respond(exchange, 200, null);
+            } else if ("PUT".equals(method)) {
+                byte[] body = readBody(exchange);
+                objects.put(path, body);
+                exchange.getResponseHeaders().add("ETag", eTag(body));
+                respond(exchange, 200, null);
+            } else if ("POST".equals(method) && query.containsKey("uploads")) {
+                readBody(exchange);
+                String uploadId = UUID.randomUUID().toString();
+                uploads.put(uploadId, new TreeMap<>());
+                int slash = path.indexOf('/');
+                respond(exchange, 200, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                        + "<InitiateMultipartUploadResult><Bucket>" + path.substring(0, slash) + "</Bucket>"
+                        + "<Key>" + path.substring(slash + 1) + "</Key>"
+                        + "<UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+            } else if ("POST".equals(method) && query.containsKey("uploadId")) {
+                readBody(exchange);
+                Map<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+                if (parts == null) {
+                    respond(exchange, 404, null);
+                    return;
+                }
+                ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+                for (byte[] part : parts.values()) {
+                    assembled.write(part);
+                }
+                objects.put(path, assembled.toByteArray());
+                respond(exchange, 200, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                        + "<CompleteMultipartUploadResult><Key>" + path + "</Key>"
+                        + "<ETag>\"" + UUID.randomUUID() + "\"</ETag></CompleteMultipartUploadResult>");
+            } else if ("DELETE".equals(method) && query.containsKey("uploadId")) {
+                uploads.remove(query.get("uploadId"));
+                respond(exchange, 204, null);
+            } else if ("DELETE".equals(method)) {
+                objects.remove(path);
+                respond(exchange, 204, null);
+            } else {
+                respond(exchange, 405, null);
+            }
+        }
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (contentSha != null && contentSha.startsWith("STREAMING-")) {
+            return decodeAwsChunked(raw);
+        }
+        return raw;
+    }
+
+    /**
+     * Decode an aws-chunked body: "hex-size[;chunk-signature=...]\r\n data \r\n" ... "0...\r\n" [trailers]
+     */
+    private static byte[] decodeAwsChunked(byte[] raw) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+        while (position < raw.length) {
+            int lineEnd = indexOfCrlf(raw, position);
+            String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0].trim(), 16);
+            position = lineEnd + 2;
+            if (size == 0) {
+                break;
+            }
+            decoded.write(raw, position, size);
+            position += size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return data.length;
+    }
+
+    /**
+     * Quoted hex MD5, like S3; the SDK validates it against the uploaded bytes
+     */
+    private static String eTag(byte[] body) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(body)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+        // No keep-alive: the JDK server can drop a reused connection while a non-retryable
+        // streaming upload is being written to it
+        exchange.getResponseHeaders().add("Connection", "close");
+        if (xml == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
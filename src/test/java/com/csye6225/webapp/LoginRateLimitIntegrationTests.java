@@ -0,0 +1,153 @@
+package com.csye6225.webapp;
+
+import com.csye6225.webapp.service.CredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Failed Basic logins are limited per username and per client IP with small test limits.
+ * Runs on a real port so the forwarded-header handling of the embedded Tomcat is exercised.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:loginlimittestdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "auth.login-limit.max-failures-per-username=3",
+    "auth.login-limit.max-failures-per-ip=6"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LoginRateLimitIntegrationTests {
+
+    private static final String PASSWORD = "secureP@ssw0rd";
+    private static final String USERNAME = "limited" + System.currentTimeMillis() + "@example.com";
+    private static final String ATTACKER = "198.51.100.23";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @Order(1)
+    @DisplayName("L.1 A username is refused from the attacking IP, unhashed, but its owner still logs in from another")
+    void testUsernameLimit() throws Exception {
+        mockMvc.perform(post("/v1/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD
+                        + "\",\"first_name\":\"Limited\",\"last_name\":\"User\"}"))
+                .andExpect(status().isCreated());
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/v1/user/self")
+                    .with(fromAddress(ATTACKER))
+                    .header("Authorization", basic(USERNAME, "wrongP@ssw0rd" + i)))
+                    .andExpect(status().isUnauthorized());
+        }
+        double verifications = passwordVerifications();
+
+        mockMvc.perform(get("/v1/user/self")
+                .with(fromAddress(ATTACKER))
+                .header("Authorization", basic(USERNAME, PASSWORD)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"));
+        Assertions.assertEquals(verifications, passwordVerifications());
+
+        // The owner has no cached credential and still gets in from their own address
+        Assertions.assertEquals(0, credentialCache.size());
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", basic(USERNAME, PASSWORD)))
+                .andExpect(status().isOk());
+        Assertions.assertEquals(verifications + 1, passwordVerifications());
+
+        Assertions.assertEquals(1.0, meterRegistry.get("auth.login.rejected")
+                .tag("limit", "username").functionCounter().count());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("L.2 A client IP is refused after too many failures across usernames, including unknown users")
+    void testIpLimit() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            mockMvc.perform(get("/v1/user/self")
+                    .header("Authorization", basic("nobody" + i + "@example.com", PASSWORD)))
+                    .andExpect(status().isNotFound());
+        }
+
+        mockMvc.perform(get("/v1/courses")
+                .header("Authorization", basic("another@example.com", PASSWORD)))
+                .andExpect(status().isTooManyRequests());
+
+        // Anonymous endpoints are unaffected
+        mockMvc.perform(get("/healthz"))
+                .andExpect(status().isOk());
+        Assertions.assertEquals(9.0, meterRegistry.get("auth.login.failures").functionCounter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("auth.login.rejected")
+                .tag("limit", "ip").functionCounter().count());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("L.3 Behind a trusted proxy the IP limit applies to the X-Forwarded-For client, not the proxy")
+    void testForwardedClientIp() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertEquals(404, send(client, "203.0.113.7", "ghost" + i + "@example.com"));
+        }
+        Assertions.assertEquals(429, send(client, "203.0.113.7", "ghost@example.com"));
+        Assertions.assertEquals(404, send(client, "203.0.113.8", "ghost@example.com"));
+        // The proxy's own address was already used up by the MockMvc requests above
+        Assertions.assertEquals(429, send(client, null, "ghost@example.com"));
+    }
+
+    private int send(HttpClient client, String forwardedFor, String username) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/v1/user/self"))
+                .header("Authorization", basic(username, PASSWORD));
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static RequestPostProcessor fromAddress(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+
+    private double passwordVerifications() {
+        return meterRegistry.get("auth.password.verify").timers().stream()
+                .mapToDouble(timer -> timer.count()).sum();
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
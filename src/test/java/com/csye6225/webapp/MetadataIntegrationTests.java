@@ -0,0 +1,162 @@
+package com.csye6225.webapp;
+
+import com.csye6225.webapp.service.CloudPlatformDetector;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * /v1/metadata against a local stand-in for the AWS instance-metadata service.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:metadatatestdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MetadataIntegrationTests {
+
+    private static final String TOKEN = "test-token";
+    private static final Map<String, String> AWS_METADATA = Map.of(
+            "/latest/meta-data/instance-id", "i-0123456789abcdef0",
+            "/latest/meta-data/placement/availability-zone", "us-east-1a",
+            "/latest/meta-data/instance-type", "t3.micro",
+            "/latest/meta-data/network/interfaces/macs/", "0a:00:00:00:00:01/\n0a:00:00:00:00:02/",
+            "/latest/meta-data/network/interfaces/macs/0a:00:00:00:00:01/local-ipv4s", "10.0.0.10",
+            "/latest/meta-data/network/interfaces/macs/0a:00:00:00:00:01/public-ipv4s", "3.90.0.10",
+            "/latest/meta-data/network/interfaces/macs/0a:00:00:00:00:01/vpc-id", "vpc-1",
+            "/latest/meta-data/network/interfaces/macs/0a:00:00:00:00:02/local-ipv4s", "10.0.1.20",
+            "/latest/meta-data/network/interfaces/macs/0a:00:00:00:00:02/vpc-id", "vpc-1");
+
+    private static final AtomicInteger metadataRequests = new AtomicInteger();
+    private static final AtomicInteger tokenRequests = new AtomicInteger();
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CloudPlatformDetector platformDetector;
+
+    @DynamicPropertySource
+    static void metadataProperties(DynamicPropertyRegistry registry) {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        registry.add("metadata.aws.base-url", () -> base + "/latest/");
+        registry.add("metadata.gcp.base-url", () -> base + "/computeMetadata/v1/");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("M.1 GET /v1/metadata assembles AWS metadata from the metadata service")
+    void testAwsMetadata() throws Exception {
+        mockMvc.perform(get("/v1/metadata"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cloud_platform").value("aws"))
+                .andExpect(jsonPath("$.instance_id").value("i-0123456789abcdef0"))
+                .andExpect(jsonPath("$.region").value("us-east-1"))
+                .andExpect(jsonPath("$.machine_type").value("t3.micro"))
+                .andExpect(jsonPath("$.network_interfaces", hasSize(2)))
+                .andExpect(jsonPath("$.network_interfaces[0].private_ip").value("10.0.0.10"))
+                .andExpect(jsonPath("$.network_interfaces[0].public_ip").value("3.90.0.10"))
+                .andExpect(jsonPath("$.network_interfaces[1].private_ip").value("10.0.1.20"))
+                .andExpect(jsonPath("$.network_interfaces[1].public_ip").value(nullValue()));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("M.2 Repeat requests are served from the metadata cache")
+    void testMetadataIsCached() throws Exception {
+        int before = metadataRequests.get();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/v1/metadata"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.instance_id").value("i-0123456789abcdef0"));
+        }
+        Assertions.assertEquals(before, metadataRequests.get());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("M.3 Platform detection runs once and is shared by concurrent callers")
+    void testPlatformDetectionIsMemoised() throws Exception {
+        int before = tokenRequests.get();
+        List<CompletableFuture<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(CompletableFuture.supplyAsync(platformDetector::detectPlatform));
+        }
+        for (CompletableFuture<String> caller : callers) {
+            Assertions.assertEquals("aws", caller.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(before, tokenRequests.get());
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            httpServer.createContext("/", MetadataIntegrationTests::handle);
+            httpServer.start();
+            return httpServer;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if ("PUT".equals(exchange.getRequestMethod()) && "/latest/api/token".equals(path)) {
+                tokenRequests.incrementAndGet();
+                respond(exchange, 200, TOKEN);
+                return;
+            }
+            if (!path.startsWith("/latest/meta-data/")) {
+                respond(exchange, 404, "");
+                return;
+            }
+            metadataRequests.incrementAndGet();
+            if (!TOKEN.equals(exchange.getRequestHeaders().getFirst("X-aws-ec2-metadata-token"))) {
+                respond(exchange, 401, "");
+                return;
+            }
+            String value = AWS_METADATA.get(path);
+            respond(exchange, value == null ? 404 : 200, value == null ? "" : value);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.csye6225.webapp;
+
+import com.csye6225.webapp.repository.S3CleanupTaskRepository;
+import com.csye6225.webapp.service.S3Service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Syllabus upload/delete against a local S3 stand-in, with the async S3 client enabled.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:s3testdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "aws.s3.bucket-name=test-bucket",
+    "aws.s3.async-enabled=true",
+    "aws.s3.multipart-threshold=5MB",
+    "aws.s3.part-size=5MB",
+    "aws.s3.max-buffered-parts=4"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SyllabusS3IntegrationTests {
+
+    private static final LocalS3Stub s3 = startStub();
+    private static final String EMAIL = "syllabus" + System.currentTimeMillis() + "@example.com";
+    private static final String PASSWORD = "secureP@ssw0rd";
+    private static String courseId;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private S3CleanupTaskRepository cleanupTaskRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void s3Properties(DynamicPropertyRegistry registry) {
+        registry.add("aws.s3.endpoint", s3::endpoint);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        s3.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("S3.1 Upload syllabus through the async S3 client")
+    void testUploadSyllabusAsync() throws Exception {
+        mockMvc.perform(post("/v1/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD
+                        + "\",\"first_name\":\"Sy\",\"last_name\":\"Labus\"}"))
+                .andExpect(status().isCreated());
+
+        String course = mockMvc.perform(post("/v1/courses")
+                .header("Authorization", basicAuth())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"department_code\":\"CSYE\",\"number\":\"6225\",\"title\":\"Cloud\","
+                        + "\"credit_hours\":4,\"classification\":\"core\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        courseId = objectMapper.readTree(course).get("id").asText();
+
+        byte[] content = "syllabus body".getBytes();
+        performAsync(multipart("/v1/courses/" + courseId + "/syllabus")
+                .file(new MockMultipartFile("file", "syllabus.txt", "text/plain", content))
+                .header("Authorization", basicAuth()))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/v1/courses/" + courseId + "/syllabus"))
+                .andExpect(jsonPath("$.file_size").value(content.length));
+
+        Assertions.assertTrue(s3.objects().values().stream().anyMatch(bytes -> Arrays.equals(bytes, content)));
+
+        String eTag = mockMvc.perform(get("/v1/courses/" + courseId + "/syllabus")
+                .header("Authorization", basicAuth()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.file_name").value("syllabus.txt"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/courses/" + courseId + "/syllabus")
+                .header("Authorization", basicAuth())
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("S3.2 Second upload for the same course is a conflict, answered before any S3 transfer")
+    void testUploadSyllabusConflict() throws Exception {
+        mockMvc.perform(multipart("/v1/courses/" + courseId + "/syllabus")
+                .file(new MockMultipartFile("file", "again.txt", "text/plain", "again".getBytes()))
+                .header("Authorization", basicAuth()))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("S3.3 Delete syllabus queues the S3 object and the outbox removes it")
+    void testDeleteSyllabusThroughOutbox() throws Exception {
+        mockMvc.perform(delete("/v1/courses/" + courseId + "/syllabus")
+                .header("Authorization", basicAuth()))
+                .andExpect(status().isNoContent());
+
+        // The object is deleted after commit on a background thread
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!s3.objects().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertTrue(s3.objects().isEmpty());
+        deadline = System.currentTimeMillis() + 5000;
+        while (cleanupTaskRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(0, cleanupTaskRepository.count());
+
+        mockMvc.perform(get("/v1/courses/" + courseId + "/syllabus")
+                .header("Authorization", basicAuth()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("S3.4 Large upload goes through the SDK multipart client")
+    void testLargeUploadAsyncMultipart() throws Exception {
+        byte[] content = randomBytes(11 * 1024 * 1024);
+        performAsync(multipart("/v1/courses/" + courseId + "/syllabus")
+                .file(new MockMultipartFile("file", "large.pdf", "application/pdf", content))
+                .header("Authorization", basicAuth()))
+                .andExpect(status().isCreated());
+
+        Assertions.assertTrue(s3.objects().values().stream().anyMatch(bytes -> Arrays.equals(bytes, content)));
+        Assertions.assertEquals(0, s3.pendingMultipartUploads());
+        // The part-buffer slot held for the async multipart upload is back in the pool
+        Assertions.assertEquals(4.0, meterRegistry.get("s3.upload.buffers.available").gauge().value());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("S3.5 Synchronous multipart upload streams parts from the buffer pool")
+    void testLargeUploadSyncMultipart() throws Exception {
+        byte[] content = randomBytes(12 * 1024 * 1024 + 17);
+        s3Service.uploadFile("sync/large.bin", new ByteArrayInputStream(content), content.length,
+                "application/octet-stream");
+
+        Assertions.assertArrayEquals(content, s3.objects().get("test-bucket/sync/large.bin"));
+        Assertions.assertEquals(0, s3.pendingMultipartUploads());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("S3.6 A failed multipart upload aborts and returns every part buffer to the pool")
+    void testFailedMultipartReleasesBuffers() throws Exception {
+        byte[] content = randomBytes(22 * 1024 * 1024);
+        double available = meterRegistry.get("s3.upload.buffers.available").gauge().value();
+
+        s3.setFailPartUploads(true);
+        try {
+            Assertions.assertThrows(RuntimeException.class, () -> s3Service.uploadFile("sync/failed.bin",
+                    new ByteArrayInputStream(content), content.length, "application/octet-stream"));
+        } finally {
+            s3.setFailPartUploads(false);
+        }
+
+        Assertions.assertEquals(available, meterRegistry.get("s3.upload.buffers.available").gauge().value());
+        Assertions.assertEquals(0, s3.pendingMultipartUploads());
+        Assertions.assertFalse(s3.objects().containsKey("test-bucket/sync/failed.bin"));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("S3.7 An async upload is refused with 503 when every part buffer is held, without waiting")
+    void testAsyncUploadRefusedWhenPoolFull() throws Exception {
+        String course = mockMvc.perform(post("/v1/courses")
+                .header("Authorization", basicAuth())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"department_code\":\"CSYE\",\"number\":\"7225\",\"title\":\"Busy\","
+                        + "\"credit_hours\":4,\"classification\":\"core\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String busyCourseId = objectMapper.readTree(course).get("id").asText();
+
+        // Four multipart uploads whose streams never deliver hold every slot of the pool
+        long size = 6L * 1024 * 1024;
+        List<PipedOutputStream> writers = new ArrayList<>();
+        List<CompletableFuture<String>> stalled = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            PipedOutputStream writer = new PipedOutputStream();
+            writers.add(writer);
+            stalled.add(s3Service.uploadFileAsync("stalled/" + i, new PipedInputStream(writer), size,
+                    "application/octet-stream"));
+        }
+        Assertions.assertEquals(0.0, meterRegistry.get("s3.upload.buffers.available").gauge().value());
+
+        try {
+            mockMvc.perform(multipart("/v1/courses/" + busyCourseId + "/syllabus")
+                    .file(new MockMultipartFile("file", "large.pdf", "application/pdf", randomBytes((int) size)))
+                    .header("Authorization", basicAuth()))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            for (PipedOutputStream writer : writers) {
+                writer.close();
+            }
+        }
+
+        for (CompletableFuture<String> upload : stalled) {
+            Assertions.assertThrows(Exception.class, () -> upload.get(10, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(4.0, meterRegistry.get("s3.upload.buffers.available").gauge().value());
+    }
+
+    private org.springframework.test.web.servlet.ResultActions performAsync(
+            org.springframework.test.web.servlet.RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private static LocalS3Stub startStub() {
+        // The SDK's default credential chain picks these up
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretAccessKey", "test");
+        try {
+            return new LocalS3Stub();
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String basicAuth() {
+        String auth = EMAIL + ":" + PASSWORD;
+        return "Basic " + java.util.Base64.getEncoder().encodeToString(auth.getBytes());
+    }
+}
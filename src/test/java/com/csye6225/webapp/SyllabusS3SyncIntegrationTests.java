@@ -0,0 +1,99 @@
+package com.csye6225.webapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Syllabus upload against a local S3 stand-in with the async S3 client disabled.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:s3synctestdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "aws.s3.bucket-name=test-bucket",
+    "aws.s3.async-enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SyllabusS3SyncIntegrationTests {
+
+    private static final LocalS3Stub s3 = startStub();
+    private static final String EMAIL = "syncsyllabus" + System.currentTimeMillis() + "@example.com";
+    private static final String PASSWORD = "secureP@ssw0rd";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void s3Properties(DynamicPropertyRegistry registry) {
+        registry.add("aws.s3.endpoint", s3::endpoint);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        s3.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("S3S.1 Upload syllabus in the request thread when async S3 is disabled")
+    void testUploadSyllabusSync() throws Exception {
+        mockMvc.perform(post("/v1/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD
+                        + "\",\"first_name\":\"Sy\",\"last_name\":\"Nc\"}"))
+                .andExpect(status().isCreated());
+
+        String course = mockMvc.perform(post("/v1/courses")
+                .header("Authorization", basicAuth())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"department_code\":\"CSYE\",\"number\":\"6225\",\"title\":\"Cloud\","
+                        + "\"credit_hours\":4,\"classification\":\"core\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String courseId = objectMapper.readTree(course).get("id").asText();
+
+        byte[] content = "sync syllabus body".getBytes();
+        mockMvc.perform(multipart("/v1/courses/" + courseId + "/syllabus")
+                .file(new MockMultipartFile("file", "syllabus.txt", "text/plain", content))
+                .header("Authorization", basicAuth()))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/v1/courses/" + courseId + "/syllabus"))
+                .andExpect(jsonPath("$.file_size").value(content.length));
+
+        Assertions.assertTrue(s3.objects().values().stream().anyMatch(bytes -> Arrays.equals(bytes, content)));
+    }
+
+    private static LocalS3Stub startStub() {
+        // The SDK's default credential chain picks these up
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretAccessKey", "test");
+        try {
+            return new LocalS3Stub();
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String basicAuth() {
+        String auth = EMAIL + ":" + PASSWORD;
+        return "Basic " + java.util.Base64.getEncoder().encodeToString(auth.getBytes());
+    }
+}
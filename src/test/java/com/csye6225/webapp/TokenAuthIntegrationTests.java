@@ -0,0 +1,140 @@
+package com.csye6225.webapp;
+
+import com.csye6225.webapp.service.AuthTokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * POST /v1/token and bearer-token access to the course and user-self endpoints.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:tokentestdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "auth.token.enabled=true",
+    "auth.token.secret=" + TokenAuthIntegrationTests.SECRET,
+    "auth.token.ttl=PT5M"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TokenAuthIntegrationTests {
+
+    static final String SECRET = "dGVzdC10b2tlbi1zZWNyZXQtdGhhdC1pcy0zMi1ieXRlcy1sb25n";
+    private static final String PASSWORD = "secureP@ssw0rd";
+    private static final String USERNAME = "token" + System.currentTimeMillis() + "@example.com";
+
+    private static String token;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @Order(1)
+    @DisplayName("T.1 POST /v1/token exchanges Basic credentials for a bearer token")
+    void testIssueToken() throws Exception {
+        mockMvc.perform(post("/v1/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD
+                        + "\",\"first_name\":\"Token\",\"last_name\":\"User\"}"))
+                .andExpect(status().isCreated());
+
+        String body = mockMvc.perform(post("/v1/token")
+                .header("Authorization", basic(USERNAME, PASSWORD)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.token_type").value("Bearer"))
+                .andExpect(jsonPath("$.expires_in").value(300))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        token = json.get("access_token").asText();
+        Assertions.assertFalse(token.isBlank());
+
+        mockMvc.perform(post("/v1/token")
+                .header("Authorization", basic(USERNAME, "wrongP@ssw0rd")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("T.2 A bearer token authenticates course and user-self requests without a password check")
+    void testBearerAccess() throws Exception {
+        long verifications = passwordVerifications();
+
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(USERNAME));
+
+        mockMvc.perform(post("/v1/courses")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"department_code\":\"CSYE\",\"number\":\"6225\",\"title\":\"Cloud\","
+                        + "\"credit_hours\":4,\"classification\":\"core\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/courses")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("6225")));
+
+        Assertions.assertEquals(verifications, passwordVerifications());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("T.3 Tampered and expired tokens are rejected with 401")
+    void testInvalidTokens() throws Exception {
+        String otherUser = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("someone.else@example.com".getBytes(StandardCharsets.UTF_8));
+        String tampered = otherUser + token.substring(token.indexOf('.'));
+        String expired = new AuthTokenService(SECRET, Duration.ofSeconds(-1)).issue(USERNAME);
+        String foreign = new AuthTokenService("", Duration.ofMinutes(5)).issue(USERNAME);
+
+        for (String invalid : new String[] {tampered, expired, foreign, "not-a-token"}) {
+            mockMvc.perform(get("/v1/user/self")
+                    .header("Authorization", "Bearer " + invalid))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.error").value("Unauthorized"));
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("T.4 A bearer token cannot be exchanged for a new token")
+    void testTokenEndpointRequiresBasic() throws Exception {
+        mockMvc.perform(post("/v1/token")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private long passwordVerifications() {
+        return meterRegistry.find("auth.password.verify").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
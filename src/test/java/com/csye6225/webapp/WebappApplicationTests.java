@@ -1,23 +1,49 @@
 package com.csye6225.webapp;
 
+import com.csye6225.webapp.config.PasswordEncoderConfig;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.csye6225.webapp.dto.UserCreateRequest;
 import com.csye6225.webapp.dto.UserUpdateRequest;
+import com.csye6225.webapp.repository.CourseRepository;
+import com.csye6225.webapp.repository.HealthCheckRepository;
+import com.csye6225.webapp.repository.UserRepository;
+import com.csye6225.webapp.service.CredentialCache;
+import com.csye6225.webapp.service.HealthCheckAuditWriter;
+import com.csye6225.webapp.service.UserCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.fail;
 
-@SpringBootTest(properties = {
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
     "spring.datasource.url=jdbc:h2:mem:testdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
     "spring.datasource.driver-class-name=org.h2.Driver",
     "spring.datasource.username=sa",
@@ -25,6 +51,7 @@ import static org.junit.jupiter.api.Assertions.fail;
     "spring.jpa.hibernate.ddl-auto=create-drop"
 })
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 @ActiveProfiles("test")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
@@ -36,6 +63,33 @@ class WebappApplicationTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private HealthCheckAuditWriter healthCheckAuditWriter;
+
+    @Autowired
+    private HealthCheckRepository healthCheckRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
     private static final String BASE_URL = "";
     private static String testEmail = "jane.doe" + System.currentTimeMillis() + "@example.com";
     private static final String testPassword = "secureP@ssw0rd";
@@ -380,6 +434,501 @@ class WebappApplicationTests {
                 .andExpect(status().isUnsupportedMediaType());
     }
 
+    // ==================== Authentication Cache Tests ====================
+
+    @Test
+    @Order(29)
+    @DisplayName("5.1 Repeat authentication is served from the credential cache")
+    void testRepeatAuthenticationHitsCredentialCache() throws Exception {
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk());
+
+        long hitsBefore = credentialCache.getHitCount();
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(hitsBefore + 1, credentialCache.getHitCount());
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("5.2 Cached credential does not accept a different password")
+    void testCredentialCacheRejectsWrongPassword() throws Exception {
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(testEmail, "wrongP@ssw0rd")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // ==================== Course Listing API Tests ====================
+
+    @Test
+    @Order(31)
+    @DisplayName("6.1 Create courses for listing")
+    void testCreateCoursesForListing() throws Exception {
+        createCourse("CSYE", "6225", "core");
+        createCourse("CSYE", "7200", "elective");
+        createCourse("INFO", "6150", "core");
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("6.2 List Courses - full catalog as JSON array")
+    void testListCoursesUnpaged() throws Exception {
+        mockMvc.perform(get("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].department_code").value("CSYE"))
+                .andExpect(jsonPath("$[0].number").value("6225"))
+                .andExpect(jsonPath("$[2].department_code").value("INFO"));
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("6.3 List Courses - keyset pagination with limit and after")
+    void testListCoursesPaged() throws Exception {
+        String firstPage = mockMvc.perform(get("/v1/courses?limit=2")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(2)))
+                .andExpect(jsonPath("$.courses[1].number").value("7200"))
+                .andExpect(jsonPath("$.next_cursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(firstPage).get("next_cursor").asText();
+
+        mockMvc.perform(get("/v1/courses?limit=2&after=" + cursor)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(1)))
+                .andExpect(jsonPath("$.courses[0].department_code").value("INFO"))
+                .andExpect(jsonPath("$.next_cursor").value(nullValue()));
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("6.4 List Courses - filter by department_code and classification")
+    void testListCoursesFiltered() throws Exception {
+        mockMvc.perform(get("/v1/courses?department_code=CSYE&classification=core")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].number").value("6225"));
+
+        // Filters match regardless of case, paged or not, as the database's collation does
+        mockMvc.perform(get("/v1/courses?department_code=csye&classification=CORE")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].number").value("6225"));
+        mockMvc.perform(get("/v1/courses?department_code=Csye&limit=10")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(greaterThan(0))))
+                .andExpect(jsonPath("$.courses[*].department_code", everyItem(is("CSYE"))));
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("6.5 List Courses - invalid limit or cursor")
+    void testListCoursesInvalidPaging() throws Exception {
+        mockMvc.perform(get("/v1/courses?limit=0")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v1/courses?after=not-a-cursor")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("6.6 Get Course - single course by ID")
+    void testGetCourseById() throws Exception {
+        String list = mockMvc.perform(get("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andReturn().getResponse().getContentAsString();
+        String courseId = objectMapper.readTree(list).get(0).get("id").asText();
+
+        mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(courseId))
+                .andExpect(jsonPath("$.department_code").value("CSYE"))
+                .andExpect(jsonPath("$.has_syllabus").value(false))
+                .andExpect(jsonPath("$.date_updated").exists());
+
+        mockMvc.perform(get("/v1/courses/00000000-0000-0000-0000-000000000000")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isNotFound());
+    }
+
+    // ==================== Health Check Audit Tests ====================
+
+    @Test
+    @Order(37)
+    @DisplayName("7.1 GET /healthz - One probe in 100 is written to the audit table, in batches")
+    void testHealthCheckAuditIsBatched() throws Exception {
+        healthCheckAuditWriter.flush();
+        long before = healthCheckRepository.count();
+
+        for (int i = 0; i < 200; i++) {
+            mockMvc.perform(get("/healthz"))
+                    .andExpect(status().isOk());
+        }
+        healthCheckAuditWriter.flush();
+        Assertions.assertEquals(before + 2, healthCheckRepository.count());
+    }
+
+    // ==================== Metrics Tests ====================
+
+    @Test
+    @Order(38)
+    @DisplayName("8.1 GET /actuator/prometheus - Scraped on the management port only, timers have histograms")
+    void testPrometheusScrape() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<String> appPort = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + serverPort + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        // Not served on the application port
+        Assertions.assertNotEquals(200, appPort.statusCode());
+        assertThat(appPort.body(), not(containsString("http_server_requests_seconds")));
+
+        HttpResponse<String> scrape = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(200, scrape.statusCode());
+        assertThat(scrape.body(), containsString("http_server_requests_seconds_bucket"));
+        assertThat(scrape.body(), containsString("auth_password_verify_seconds_bucket"));
+        assertThat(scrape.body(), containsString("spring_data_repository_invocations_seconds_bucket"));
+        assertThat(scrape.body(), containsString("cache_gets_total{application=\"webapp\",cache=\"auth.credential\""));
+    }
+
+    // ==================== Bulk Course Import Tests ====================
+
+    @Test
+    @Order(39)
+    @DisplayName("9.1 Import Courses - JSON array with per-row created, duplicate and invalid results")
+    void testImportCoursesJsonArray() throws Exception {
+        String body = "["
+                + courseJson("DAMG", "6210", "core") + ","
+                + courseJson("CSYE", "6225", "core") + ","
+                + courseJson("DAMG", "6210", "elective") + ","
+                + "{\"department_code\":\"DAMG\",\"number\":\"7250\",\"title\":\"Big Data\","
+                + "\"credit_hours\":12,\"classification\":\"core\"},"
+                + "\"not a course\"]";
+
+        mockMvc.perform(post("/v1/courses/import")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].course.department_code").value("DAMG"))
+                .andExpect(jsonPath("$[0].course.id").isNotEmpty())
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[2].status").value(409))
+                .andExpect(jsonPath("$[3].status").value(400))
+                .andExpect(jsonPath("$[3].message").value("credit_hours must be at most 8"))
+                .andExpect(jsonPath("$[4].status").value(400));
+    }
+
+    @Test
+    @Order(40)
+    @DisplayName("9.2 Import Courses - NDJSON stream, unsupported Content-Type")
+    void testImportCoursesNdjson() throws Exception {
+        String body = courseJson("TELE", "5330", "core") + "\n" + courseJson("TELE", "6510", "elective") + "\n";
+
+        String response = mockMvc.perform(post("/v1/courses/import")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.strip().split("\n");
+        Assertions.assertEquals(2, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode result = objectMapper.readTree(lines[i]);
+            Assertions.assertEquals(i, result.get("index").asInt());
+            Assertions.assertEquals(201, result.get("status").asInt());
+            mockMvc.perform(get("/v1/courses/" + result.get("course").get("id").asText())
+                    .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.department_code").value("TELE"));
+        }
+
+        mockMvc.perform(post("/v1/courses/import")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .contentType(MediaType.TEXT_PLAIN)
+                .content(body))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    // ==================== Conditional GET Tests ====================
+
+    @Test
+    @Order(41)
+    @DisplayName("10.1 Get Course - ETag and Last-Modified; 304 until the course is updated")
+    void testGetCourseConditional() throws Exception {
+        String list = mockMvc.perform(get("/v1/courses?department_code=CSYE")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andReturn().getResponse().getContentAsString();
+        String courseId = objectMapper.readTree(list).get(0).get("id").asText();
+
+        org.springframework.mock.web.MockHttpServletResponse first = mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "private, no-cache"))
+                .andReturn().getResponse();
+        String eTag = first.getHeader("ETag");
+        // date_updated is local time in the JVM zone; Last-Modified is the same instant in GMT
+        LocalDateTime dateUpdated = courseRepository.findById(UUID.fromString(courseId))
+                .orElseThrow().getDateUpdated();
+        Assertions.assertEquals(dateUpdated.atZone(ZoneId.systemDefault()).toEpochSecond() * 1000,
+                first.getDateHeader("Last-Modified"));
+
+        mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Network Structures and Cloud Computing\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("$.title").value("Network Structures and Cloud Computing"));
+    }
+
+    @Test
+    @Order(42)
+    @DisplayName("10.2 List Courses - catalog ETag; 304 until a course is created or deleted")
+    void testListCoursesConditional() throws Exception {
+        String eTag = mockMvc.perform(get("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/courses?limit=2")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        createCourse("ENCP", "6000", "elective");
+
+        String changed = mockMvc.perform(get("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        Assertions.assertNotEquals(eTag, changed);
+    }
+
+    // ==================== Course Cache Tests ====================
+
+    @Test
+    @Order(43)
+    @DisplayName("11.1 Course cache - repeat reads are cache hits, deletes are visible immediately")
+    void testCourseCache() throws Exception {
+        createCourse("INFO", "7390", "elective");
+        String list = mockMvc.perform(get("/v1/courses?department_code=INFO")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.number == '7390')]").exists())
+                .andReturn().getResponse().getContentAsString();
+        String courseId = null;
+        for (JsonNode course : objectMapper.readTree(list)) {
+            if ("7390".equals(course.get("number").asText())) {
+                courseId = course.get("id").asText();
+            }
+        }
+
+        double hitsBefore = cacheHits("course.by_id");
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/v1/courses/" + courseId)
+                    .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                    .andExpect(status().isOk());
+        }
+        Assertions.assertTrue(cacheHits("course.by_id") >= hitsBefore + 2);
+
+        mockMvc.perform(delete("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/v1/courses?department_code=INFO")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(jsonPath("$[?(@.number == '7390')]").doesNotExist());
+    }
+
+    @Test
+    @Order(44)
+    @DisplayName("12.1 Pre-serialized JSON - unchanged versions reuse the bytes, updates produce new ones")
+    void testPreSerializedJson() throws Exception {
+        createCourse("DAMG", "7250", "core");
+        String list = mockMvc.perform(get("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertEquals(list, mockMvc.perform(get("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andReturn().getResponse().getContentAsString());
+        String courseId = null;
+        for (JsonNode course : objectMapper.readTree(list)) {
+            if ("7250".equals(course.get("number").asText())) {
+                courseId = course.get("id").asText();
+            }
+        }
+
+        double hitsBefore = cacheHits("json.response");
+        MvcResult first = mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.title").value("Course 7250"))
+                .andReturn();
+        MvcResult second = mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertEquals(first.getResponse().getContentAsString(), second.getResponse().getContentAsString());
+        Assertions.assertEquals(first.getResponse().getHeader("ETag"), second.getResponse().getHeader("ETag"));
+        Assertions.assertTrue(cacheHits("json.response") >= hitsBefore + 1);
+
+        mockMvc.perform(put("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Database Management\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult updated = mockMvc.perform(get("/v1/courses/" + courseId)
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Database Management"))
+                .andReturn();
+        Assertions.assertNotEquals(first.getResponse().getHeader("ETag"), updated.getResponse().getHeader("ETag"));
+        mockMvc.perform(get("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(jsonPath("$[?(@.title == 'Database Management')]").exists());
+
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.username").value(testEmail));
+
+        for (String path : new String[]{"/v1/courses", "/v1/courses/" + courseId, "/v1/user/self"}) {
+            mockMvc.perform(get(path)
+                    .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                    .accept(MediaType.APPLICATION_XML))
+                    .andExpect(status().isNotAcceptable());
+        }
+    }
+
+    @Test
+    @Order(45)
+    @DisplayName("13.1 Password hashing - a hash below the current work factor is upgraded after login")
+    void testPasswordHashUpgrade() throws Exception {
+        String currentHash = userRepository.findByUsername(testEmail).orElseThrow().getPassword();
+        String weakHash = new BCryptPasswordEncoder(4).encode(newPassword);
+        Assertions.assertEquals(1, userRepository.updatePasswordIfUnchanged(testEmail, currentHash, weakHash));
+        userCache.invalidate(testEmail);
+
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk());
+
+        String upgraded = weakHash;
+        for (int i = 0; i < 50 && upgraded.equals(weakHash); i++) {
+            Thread.sleep(100);
+            upgraded = userRepository.findByUsername(testEmail).orElseThrow().getPassword();
+        }
+        Assertions.assertTrue(upgraded.startsWith("{bcrypt}$2a$10$"), upgraded);
+
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(46)
+    @DisplayName("13.2 Password hashing - Argon2 and PBKDF2 hashes verify and migrate to the configured algorithm")
+    void testDelegatingPasswordEncoder() throws Exception {
+        Map<String, PasswordEncoder> encoders =
+                PasswordEncoderConfig.encoders(4, 1024, 1, 310000);
+        for (String algorithm : List.of("argon2", "pbkdf2")) {
+            String currentHash = userRepository.findByUsername(testEmail).orElseThrow().getPassword();
+            String legacyHash = "{" + algorithm + "}" + encoders.get(algorithm).encode(newPassword);
+            Assertions.assertEquals(1, userRepository.updatePasswordIfUnchanged(testEmail, currentHash, legacyHash));
+            userCache.invalidate(testEmail);
+            double verified = meterRegistry.get("auth.password.verify")
+                    .tag("algorithm", algorithm).tag("outcome", "success").timer().count();
+
+            mockMvc.perform(get("/v1/user/self")
+                    .header("Authorization", getBasicAuthHeader(testEmail, newPassword)))
+                    .andExpect(status().isOk());
+            Assertions.assertEquals(verified + 1, meterRegistry.get("auth.password.verify")
+                    .tag("algorithm", algorithm).tag("outcome", "success").timer().count());
+
+            String migrated = legacyHash;
+            for (int i = 0; i < 50 && migrated.equals(legacyHash); i++) {
+                Thread.sleep(100);
+                migrated = userRepository.findByUsername(testEmail).orElseThrow().getPassword();
+            }
+            Assertions.assertTrue(migrated.startsWith("{bcrypt}$2a$10$"), migrated);
+        }
+    }
+
+    // ==================== Negative Username Cache Tests ====================
+
+    @Test
+    @Order(47)
+    @DisplayName("14.1 Unknown usernames answer 404 from the negative cache until the user signs up")
+    void testUnknownUsernameCache() throws Exception {
+        String unknown = "scanner" + System.currentTimeMillis() + "@example.com";
+
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(unknown, testPassword)))
+                .andExpect(status().isNotFound());
+        double missingHits = cacheHits("auth.user.missing");
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(unknown, testPassword)))
+                .andExpect(status().isNotFound());
+        Assertions.assertEquals(missingHits + 1, cacheHits("auth.user.missing"));
+
+        mockMvc.perform(post("/v1/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + unknown + "\",\"password\":\"" + testPassword
+                        + "\",\"first_name\":\"Late\",\"last_name\":\"Signup\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/user/self")
+                .header("Authorization", getBasicAuthHeader(unknown, testPassword)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(unknown));
+    }
+
      // ==================== Demo: Intentional Failure ====================
     // @Test
     // @Order(27)
@@ -388,6 +937,27 @@ class WebappApplicationTests {
     //     fail("This test intentionally fails to demonstrate that CI/CD prevents merging failed tests");
     // }
 
+    private double cacheHits(String cache) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter().count();
+    }
+
+    private static String courseJson(String departmentCode, String number, String classification) {
+        return "{\"department_code\":\"" + departmentCode + "\",\"number\":\"" + number
+                + "\",\"title\":\"Course " + number + "\",\"credit_hours\":4,\"classification\":\""
+                + classification + "\"}";
+    }
+
+    // Helper method to create a course as the test user
+    private void createCourse(String departmentCode, String number, String classification) throws Exception {
+        String body = courseJson(departmentCode, number, classification);
+
+        mockMvc.perform(post("/v1/courses")
+                .header("Authorization", getBasicAuthHeader(testEmail, newPassword))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated());
+    }
+
     // Helper method for Basic Auth
     private String getBasicAuthHeader(String username, String password) {
         String auth = username + ":" + password;